@@ -0,0 +1,28 @@
+#!/bin/sh
+# Compiles the game and generates an AppCDS archive of the classes loaded by a typical session.
+#
+# Usage: scripts/build-cds.sh
+# Output: build/connect6.jar (the game) and build/connect6.jsa (class data sharing archive)
+set -e
+
+cd "$(dirname "$0")/.."
+rm -rf build/classes
+mkdir -p build/classes
+javac -d build/classes $(find src -name '*.java')
+# Class data sharing only archives classes loaded from jar files
+jar --create --file build/connect6.jar --main-class edu.kit.informatik.Main -C build/classes .
+
+# Training run touching every command, so that all of their classes end up in the archive
+java -XX:ArchiveClassesAtExit=build/connect6.jsa -jar build/connect6.jar standard 18 2 > /dev/null <<'SESSION'
+place 6;3;6;8
+place 3;2;1;7
+rowprint 6
+colprint 3
+state 6;3
+print
+reset
+invalid
+quit
+SESSION
+
+echo "Archive written to build/connect6.jsa"
@@ -0,0 +1,8 @@
+#!/bin/sh
+# Launches the game in startup-optimized mode: classes are mapped from the AppCDS archive built
+# by scripts/build-cds.sh and only the client compiler is used, which suits short-lived processes.
+#
+# Usage: scripts/connect6-fast.sh <game mode> <board size> <player count>
+cd "$(dirname "$0")/.."
+exec java -XX:SharedArchiveFile=build/connect6.jsa -XX:TieredStopAtLevel=1 -Xss512k \
+    -jar build/connect6.jar "$@"
@@ -0,0 +1,29 @@
+#!/bin/sh
+# Runs a distributed self-play job on this machine: one coordinator process and the given number
+# of worker processes, connected over the loopback interface. Every game is played from its own
+# seed, so the transcripts do not depend on the number of workers.
+#
+# Usage: scripts/self-play.sh <workers> <games> [board type] [rules] [players] [output file]
+# The port can be changed with SELF_PLAY_PORT, the batch size with SELF_PLAY_BATCH.
+set -e
+
+cd "$(dirname "$0")/.."
+WORKERS=${1:?usage: scripts/self-play.sh <workers> <games> [board type] [rules] [players] [output file]}
+GAMES=${2:?usage: scripts/self-play.sh <workers> <games> [board type] [rules] [players] [output file]}
+PORT=${SELF_PLAY_PORT:-47600}
+mkdir -p build/classes
+javac -d build/classes $(find src -name '*.java')
+
+java -cp build/classes edu.kit.informatik.game.selfplay.SelfPlayCoordinator "$PORT" "${3:-standard}" \
+    "${4:-18}" "${5:-2}" "$GAMES" "${SELF_PLAY_BATCH:-100}" 1 "${6:-build/self-play.txt}" &
+COORDINATOR=$!
+# Give the coordinator time to open its server socket
+sleep 1
+
+i=0
+while [ "$i" -lt "$WORKERS" ]; do
+    java -cp build/classes edu.kit.informatik.game.selfplay.SelfPlayWorker "$PORT" &
+    i=$((i + 1))
+done
+wait "$COORDINATOR"
+wait
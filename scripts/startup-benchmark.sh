@@ -0,0 +1,26 @@
+#!/bin/sh
+# Measures the time to first response of short-lived game processes, with and without the
+# startup-optimized launch mode. Each run starts the game, answers a single command and quits.
+#
+# Usage: scripts/startup-benchmark.sh [runs]
+set -e
+
+cd "$(dirname "$0")/.."
+RUNS=${1:-20}
+[ -f build/connect6.jsa ] || scripts/build-cds.sh > /dev/null
+
+measure() {
+    start=$(date +%s%N)
+    i=0
+    while [ "$i" -lt "$RUNS" ]; do
+        printf 'place 6;3;6;8\nquit\n' | "$@" standard 18 2 > /dev/null
+        i=$((i + 1))
+    done
+    end=$(date +%s%N)
+    echo $(((end - start) / RUNS / 1000000))
+}
+
+default=$(measure java -jar build/connect6.jar)
+fast=$(measure scripts/connect6-fast.sh)
+echo "default launch: ${default} ms per process"
+echo "fast launch:    ${fast} ms per process"
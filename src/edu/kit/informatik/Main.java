@@ -3,12 +3,14 @@ package edu.kit.informatik;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.util.Arrays;
 
 import edu.kit.informatik.command.Command;
 import edu.kit.informatik.command.CommandExecutor;
 import edu.kit.informatik.command.CommandParser;
 import edu.kit.informatik.game.logic.ConnectSix;
 import edu.kit.informatik.game.logic.GameInitializer;
+import edu.kit.informatik.game.solver.Ponderer;
 
 /**
  * The main class is the entry point of the Connect Six game.
@@ -23,6 +25,11 @@ public final class Main {
      */
     private static final BufferedReader IN = new BufferedReader(new InputStreamReader(System.in));
 
+    /**
+     * Optional last command-line argument enabling background search while waiting for input.
+     */
+    private static final String PONDER_OPTION = "ponder";
+
     /**
      * Private constructor to avoid object generation.
      */
@@ -42,6 +49,7 @@ public final class Main {
      *   <li><b>Game Mode:</b> "standard" or "torus".</li>
      *   <li><b>Board Size:</b> An even number between 17 and 21.</li>
      *   <li><b>Player Count:</b> An integer between 2 and the maximum supported players.</li>
+     *   <li><b>Pondering (optional):</b> "ponder" to search in the background while waiting for input.</li>
      * </ul>
      * 
      * <p>Example: {@code java edu.kit.informatik.Main standard 20 2}</p>
@@ -51,11 +59,13 @@ public final class Main {
      * @throws NumberFormatException If the input is not a valid integer.
      */
     public static void main(final String[] args) throws InvalidInputException {
-        ConnectSix connectSix = GameInitializer.initializeGame(args);
+        boolean ponder = args.length == 4 && args[3].equals(PONDER_OPTION);
+        ConnectSix connectSix = GameInitializer.initializeGame(ponder ? Arrays.copyOf(args, 3) : args);
+        Ponderer ponderer = ponder ? new Ponderer(Command.getSolverTable()) : null;
 
         while (Command.isRunning()) {
             try {
-                String userInput = IN.readLine();
+                String userInput = readInput(connectSix, ponderer);
                 Command command = CommandParser.parse(userInput);
                 CommandExecutor.execute(command, userInput, connectSix);
             } catch (InvalidInputException invalidInputException) {
@@ -67,4 +77,24 @@ public final class Main {
             }
         }
     }
+
+    /**
+     * Reads the next line of user input, pondering on the game while waiting if enabled.
+     *
+     * @param connectSix The game waiting for input.
+     * @param ponderer The ponderer to use, or {@code null} if pondering is disabled.
+     * @return The line read.
+     * @throws IOException If reading the input fails.
+     */
+    private static String readInput(ConnectSix connectSix, Ponderer ponderer) throws IOException {
+        if (ponderer == null) {
+            return IN.readLine();
+        }
+        ponderer.start(connectSix);
+        try {
+            return IN.readLine();
+        } finally {
+            ponderer.stop();
+        }
+    }
 }
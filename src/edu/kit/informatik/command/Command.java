@@ -6,6 +6,8 @@ import java.util.regex.Pattern;
 import edu.kit.informatik.InvalidInputException;
 import edu.kit.informatik.game.logic.ConnectSix;
 import edu.kit.informatik.game.logic.GameState;
+import edu.kit.informatik.game.solver.NodeTable;
+import edu.kit.informatik.game.solver.ThreatSolver;
 
 /**
  * This class implements all necessary commands for game usage.
@@ -118,6 +120,25 @@ public enum Command {
         }
     },
 
+    /**
+     * Command to search for a forced win of the current player by continuous threats.
+     * <p>
+     * Example:
+     * <pre>
+     * solve 100000;5000
+     * </pre>
+     * Searches at most 100000 nodes for at most 5000 milliseconds and prints the winning sequence.
+     */
+    SOLVE("solve (\\d+);(\\d+)") {
+        @Override
+        public void commandMethod(MatchResult matcher, ConnectSix connectSix) throws InvalidInputException {
+            long maxNodes = Long.parseLong(matcher.group(1));
+            long maxMillis = Long.parseLong(matcher.group(2));
+            ThreatSolver solver = new ThreatSolver(connectSix, getSolverTable());
+            System.out.println(solver.solve(maxNodes, maxMillis));
+        }
+    },
+
     /**
      * Command to quit the game.
      * <p>
@@ -135,15 +156,18 @@ public enum Command {
     };
 
     private static boolean RUNNING = true;
-    private final Pattern pattern;
+    private static NodeTable SOLVER_TABLE;
+    private final String regex;
+    private Pattern pattern;
 
     /**
-     * Creates a command.
+     * Creates a command. The regular expression is compiled on first use, so that only the
+     * commands actually entered pay for their pattern.
      *
      * @param regex Regular expression for the command.
      */
     Command(final String regex) {
-        this.pattern = Pattern.compile(regex);
+        this.regex = regex;
     }
 
     /**
@@ -152,9 +176,22 @@ public enum Command {
      * @return The regex pattern.
      */
     public Pattern getPattern() {
+        if (pattern == null) {
+            pattern = Pattern.compile(regex);
+        }
         return pattern;
     }
 
+    /**
+     * Returns the keyword the command starts with.
+     *
+     * @return The command keyword.
+     */
+    public String getKeyword() {
+        int end = regex.indexOf(' ');
+        return end < 0 ? regex : regex.substring(0, end);
+    }
+
     /**
      * Executes the command-specific logic.
      *
@@ -172,4 +209,17 @@ public enum Command {
     public static boolean isRunning() {
         return RUNNING;
     }
+
+    /**
+     * Returns the node table used by the solve command. Results are kept between commands, so
+     * later searches and background pondering can reuse them.
+     *
+     * @return The solver node table.
+     */
+    public static NodeTable getSolverTable() {
+        if (SOLVER_TABLE == null) {
+            SOLVER_TABLE = new NodeTable();
+        }
+        return SOLVER_TABLE;
+    }
 }
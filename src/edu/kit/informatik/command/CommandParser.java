@@ -1,6 +1,7 @@
 package edu.kit.informatik.command;
 
-import java.util.regex.Matcher;
+import java.util.HashMap;
+import java.util.Map;
 
 import edu.kit.informatik.InvalidInputException;
 
@@ -17,12 +18,24 @@ public class CommandParser {
      * @throws InvalidInputException If the input does not match any valid command.
      */
     public static Command parse(String userInput) throws InvalidInputException {
-        for (Command command : Command.values()) {
-            Matcher matcher = command.getPattern().matcher(userInput);
-            if (matcher.matches()) {
-                return command;
-            }
+        int end = userInput.indexOf(' ');
+        Command command = CommandTable.COMMANDS.get(end < 0 ? userInput : userInput.substring(0, end));
+        if (command != null && command.getPattern().matcher(userInput).matches()) {
+            return command;
         }
         throw new InvalidInputException("invalid command.");
     }
+
+    /**
+     * Holder of the command table, built on the first parsed command.
+     */
+    private static final class CommandTable {
+        private static final Map<String, Command> COMMANDS = new HashMap<>();
+
+        static {
+            for (Command command : Command.values()) {
+                COMMANDS.put(command.getKeyword(), command);
+            }
+        }
+    }
 }
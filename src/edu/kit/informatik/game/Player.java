@@ -1,8 +1,5 @@
 package edu.kit.informatik.game;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * This enum represents the players in the Connect Six game.
  * Each player is identified by a unique player ID.
@@ -28,15 +25,9 @@ public enum Player {
      */
     P4(3);
 
-    private static final Map<Integer, Player> PLAYER_MAP = new HashMap<>();
+    private static final Player[] PLAYERS = values();
     private final int playerID;
 
-    static {
-        for (Player player : Player.values()) {
-            PLAYER_MAP.put(player.playerID, player);
-        }
-    }
-
     /**
      * Creates a player with the specified player ID.
      *
@@ -62,7 +53,7 @@ public enum Player {
      * @return The {@link Player} corresponding to the given ID, or {@code null} if no such player exists.
      */
     public static Player getPlayerByID(final int id) {
-        return PLAYER_MAP.get(id);
+        return id >= 0 && id < PLAYERS.length ? PLAYERS[id] : null;
     }
 
     /**
@@ -71,7 +62,7 @@ public enum Player {
      * @return The maximum number of players.
      */
     public static int getMaxAmountOfPlayers() {
-        return PLAYER_MAP.size();
+        return PLAYERS.length;
     }
 
     /**
@@ -82,7 +73,7 @@ public enum Player {
      * @throws IllegalArgumentException If the playerAmount is invalid.
      */
     public Player getNextPlayer(final int playerAmount) {
-        if (playerAmount <= 0 || playerAmount > PLAYER_MAP.size()) {
+        if (playerAmount <= 0 || playerAmount > PLAYERS.length) {
             throw new IllegalArgumentException("Invalid player amount: " + playerAmount);
         }
         return getPlayerByID((playerID + 1) % playerAmount);
@@ -0,0 +1,343 @@
+package edu.kit.informatik.game.batch;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import edu.kit.informatik.InvalidInputException;
+import edu.kit.informatik.game.logic.ConnectSix;
+import edu.kit.informatik.game.logic.GameInitializer;
+import edu.kit.informatik.game.logic.GameRules;
+import edu.kit.informatik.game.logic.GameState;
+
+/**
+ * Command line tool that validates the {@link BatchEngine} against {@link ConnectSix} and compares
+ * their throughput.
+ * <p>
+ * Every game places its tokens in the order of its own random permutation of the cells. For the
+ * validation, the games are played side by side in a batch engine and in one {@link ConnectSix}
+ * game each, and some moves are replaced by invalid ones: an occupied cell, a cell outside the
+ * board or the same cell twice. After every round, the results, game states, current players, game
+ * counters and all cells of both engines are compared. The timed runs play the same games without
+ * invalid moves on a single thread, once in the batch engine and once game by game in a reused
+ * {@link ConnectSix} game, so the throughput is per core. The batch engine plays the games in
+ * chunks of {@value #CHUNK_SIZE}, each to its end, so the state of the running games stays in the
+ * cache. After a warm-up run, both engines are timed in alternating rounds, and the median round
+ * of each engine is reported.
+ * </p>
+ *
+ * <p>
+ * Usage: {@code java edu.kit.informatik.game.batch.BatchBenchmark <type> <rules> <players> <games> [seed]}
+ * </p>
+ */
+public final class BatchBenchmark {
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final int INVALID_MOVE_RATE = 16;
+    private static final int CHUNK_SIZE = 64;
+    private static final int ROUNDS = 7;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private BatchBenchmark() {
+        throw new AssertionError("Utility class constructor.");
+    }
+
+    /**
+     * Validates the batch engine and times both engines for random games of the given configuration.
+     *
+     * @param args The board type, the rules, the number of players, the number of games and
+     *             optionally the seed.
+     */
+    public static void main(final String[] args) {
+        if (args.length < 4 || args.length > 5) {
+            System.out.println("Error, usage: BatchBenchmark <type> <rules> <players> <games> [seed]");
+            return;
+        }
+        try {
+            GameRules rules = GameRules.parse(args[1]);
+            int players = Integer.parseInt(args[2]);
+            int games = Integer.parseInt(args[3]);
+            long seed = args.length == 5 ? Long.parseLong(args[4]) : 0;
+            if (games <= 0) {
+                System.out.println("Error, the number of games must be positive.");
+                return;
+            }
+            int[][] orders = cellOrders(rules.getCellCount(), games, seed);
+
+            ConnectSix[] singleGames = new ConnectSix[games];
+            for (int game = 0; game < games; game++) {
+                singleGames[game] = GameInitializer.initializeGame(args[0], rules, players);
+            }
+            BatchEngine engine = new BatchEngine(args[0], rules, players, games);
+            String mismatch = compare(engine, singleGames, orders, new SplittableRandom(seed));
+            if (mismatch != null) {
+                System.out.println("Error, the engines differ: " + mismatch);
+                return;
+            }
+            System.out.println("validated " + games + " games");
+
+            ConnectSix single = singleGames[0];
+            long tokens = playBatch(engine, rules, orders);
+            playSingle(single, orders);
+            long[] batchNanos = new long[ROUNDS];
+            long[] singleNanos = new long[ROUNDS];
+            for (int round = 0; round < ROUNDS; round++) {
+                long start = System.nanoTime();
+                playBatch(engine, rules, orders);
+                batchNanos[round] = System.nanoTime() - start;
+                start = System.nanoTime();
+                playSingle(single, orders);
+                singleNanos[round] = System.nanoTime() - start;
+            }
+            report("batch", games, tokens, batchNanos);
+            report("single", games, tokens, singleNanos);
+        } catch (InvalidInputException e) {
+            System.out.println("Error, " + e.getMessage());
+        } catch (NumberFormatException e) {
+            System.out.println("Error, invalid number: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Plays the games side by side in both engines, with some invalid moves, and compares them
+     * after every round.
+     *
+     * @param engine A batch engine with all games in their initial state.
+     * @param singleGames A new game per game of the engine.
+     * @param orders The order of the cells per game.
+     * @param random The source of the invalid moves.
+     * @return A description of the first difference, or {@code null} if the engines agree.
+     */
+    private static String compare(BatchEngine engine, ConnectSix[] singleGames, int[][] orders,
+            SplittableRandom random) {
+        GameRules rules = singleGames[0].getRules();
+        int games = singleGames.length;
+        int[] gameIndices = new int[games];
+        int[] moves = new int[games * engine.getMoveWidth()];
+        byte[] results = new byte[games];
+        byte[] expected = new byte[games];
+
+        for (int round = 0, running = games; running > 0; round++) {
+            int count = 0;
+            for (int game = 0; game < games; game++) {
+                if (singleGames[game].getCurrentGameState() != GameState.RUNNING) {
+                    continue;
+                }
+                ConnectSix single = singleGames[game];
+                int stones = rules.getStonesForTurn(single.getGameCounter(), single.getPlacedCount());
+                int[] tokenRows = new int[stones];
+                int[] tokenColumns = new int[stones];
+                for (int stone = 0; stone < stones; stone++) {
+                    int cell = orders[game][single.getPlacedCount() + stone];
+                    tokenRows[stone] = cell / rules.getColumns();
+                    tokenColumns[stone] = cell % rules.getColumns();
+                }
+                if (random.nextInt(INVALID_MOVE_RATE) == 0) {
+                    breakMove(single, tokenRows, tokenColumns, random);
+                }
+                for (int stone = 0; stone < stones; stone++) {
+                    moves[count * engine.getMoveWidth() + 2 * stone] = tokenRows[stone];
+                    moves[count * engine.getMoveWidth() + 2 * stone + 1] = tokenColumns[stone];
+                }
+                try {
+                    single.placeTokens(tokenRows, tokenColumns);
+                    expected[count] = (byte) single.getCurrentGameState().ordinal();
+                    if (single.getCurrentGameState() != GameState.RUNNING) {
+                        running--;
+                    }
+                } catch (InvalidInputException e) {
+                    expected[count] = BatchEngine.INVALID;
+                }
+                gameIndices[count++] = game;
+            }
+
+            engine.placeBatch(gameIndices, moves, count, results);
+            for (int i = 0; i < count; i++) {
+                int game = gameIndices[i];
+                String difference = results[i] != expected[i] ? "result " + results[i] + " instead of " + expected[i]
+                        : difference(engine, game, singleGames[game]);
+                if (difference != null) {
+                    return "game " + game + " in round " + round + ": " + difference;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Replaces a move by an invalid one.
+     *
+     * @param game The game the move is played in.
+     * @param tokenRows The rows of the move's tokens.
+     * @param tokenColumns The columns of the move's tokens.
+     * @param random The source of the kind of invalid move.
+     */
+    private static void breakMove(ConnectSix game, int[] tokenRows, int[] tokenColumns, SplittableRandom random) {
+        int stone = random.nextInt(tokenRows.length);
+        int kind = random.nextInt(3);
+        if (kind == 0 && game.getPlacedCount() > 0) {
+            int cell = game.getPlacedCell(random.nextInt(game.getPlacedCount()));
+            tokenRows[stone] = cell / game.getRules().getColumns();
+            tokenColumns[stone] = cell % game.getRules().getColumns();
+        } else if (kind == 1 && tokenRows.length > 1) {
+            int other = (stone + 1) % tokenRows.length;
+            tokenRows[stone] = tokenRows[other];
+            tokenColumns[stone] = tokenColumns[other];
+        } else {
+            tokenRows[stone] = random.nextBoolean() ? -1 : game.getRules().getRows();
+        }
+    }
+
+    /**
+     * Compares a game of the batch engine with a single game.
+     *
+     * @param engine The batch engine.
+     * @param game The index of the game in the engine.
+     * @param single The single game.
+     * @return A description of the first difference, or {@code null} if the games agree.
+     */
+    private static String difference(BatchEngine engine, int game, ConnectSix single) {
+        if (engine.getGameState(game) != single.getCurrentGameState()) {
+            return "state " + engine.getGameState(game) + " instead of " + single.getCurrentGameState();
+        }
+        if (engine.getCurrentPlayer(game) != single.getCurrentPlayer()) {
+            return "current player " + engine.getCurrentPlayer(game) + " instead of " + single.getCurrentPlayer();
+        }
+        if (engine.getGameCounter(game) != single.getGameCounter()) {
+            return "game counter " + engine.getGameCounter(game) + " instead of " + single.getGameCounter();
+        }
+        int columns = single.getRules().getColumns();
+        for (int cell = 0; cell < single.getRules().getCellCount(); cell++) {
+            String expected;
+            try {
+                expected = single.stateBoard(cell / columns, cell % columns);
+            } catch (InvalidInputException e) {
+                return e.getMessage();
+            }
+            String actual = engine.getCell(game, cell) == null ? "**" : engine.getCell(game, cell).toString();
+            if (!actual.equals(expected)) {
+                return "cell " + cell + " is " + actual + " instead of " + expected;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Plays all games to their end in a batch engine, resetting the games first. The games are
+     * played in chunks, and every chunk is played to its end before the next one starts.
+     *
+     * @param engine The batch engine.
+     * @param rules The rules of the games.
+     * @param orders The order of the cells per game.
+     * @return The number of placed tokens.
+     */
+    private static long playBatch(BatchEngine engine, GameRules rules, int[][] orders) {
+        int chunkSize = Math.min(orders.length, CHUNK_SIZE);
+        int[] gameIndices = new int[chunkSize];
+        int[] moves = new int[chunkSize * engine.getMoveWidth()];
+        byte[] results = new byte[chunkSize];
+        int[] placed = new int[orders.length];
+        int stonesPerMove = engine.getMoveWidth() / 2;
+        long tokens = 0;
+        for (int first = 0; first < orders.length; first += chunkSize) {
+            int running = Math.min(chunkSize, orders.length - first);
+            for (int i = 0; i < running; i++) {
+                engine.reset(first + i);
+                gameIndices[i] = first + i;
+            }
+
+            while (running > 0) {
+                for (int i = 0; i < running; i++) {
+                    int game = gameIndices[i];
+                    int offset = i * engine.getMoveWidth();
+                    for (int stone = 0; stone < stonesPerMove; stone++) {
+                        int cell = orders[game][Math.min(placed[game] + stone, orders[game].length - 1)];
+                        moves[offset + 2 * stone] = cell / rules.getColumns();
+                        moves[offset + 2 * stone + 1] = cell % rules.getColumns();
+                    }
+                }
+                engine.placeBatch(gameIndices, moves, running, results);
+
+                int stillRunning = 0;
+                for (int i = 0; i < running; i++) {
+                    int game = gameIndices[i];
+                    int stones = rules.getStonesForTurn(engine.getGameCounter(game) - 1, placed[game]);
+                    placed[game] += stones;
+                    tokens += stones;
+                    if (results[i] == GameState.RUNNING.ordinal()) {
+                        gameIndices[stillRunning++] = game;
+                    }
+                }
+                running = stillRunning;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Plays all games to their end one after another in a single reused game.
+     *
+     * @param game The game to play on.
+     * @param orders The order of the cells per game.
+     * @return The number of placed tokens.
+     * @throws InvalidInputException If a move is rejected.
+     */
+    private static long playSingle(ConnectSix game, int[][] orders) throws InvalidInputException {
+        GameRules rules = game.getRules();
+        int columns = rules.getColumns();
+        long tokens = 0;
+        for (int[] order : orders) {
+            game.resetGame();
+            while (game.getCurrentGameState() == GameState.RUNNING) {
+                int stones = rules.getStonesForTurn(game.getGameCounter(), game.getPlacedCount());
+                int[] tokenRows = new int[stones];
+                int[] tokenColumns = new int[stones];
+                for (int stone = 0; stone < stones; stone++) {
+                    int cell = order[game.getPlacedCount() + stone];
+                    tokenRows[stone] = cell / columns;
+                    tokenColumns[stone] = cell % columns;
+                }
+                game.placeTokens(tokenRows, tokenColumns);
+            }
+            tokens += game.getPlacedCount();
+        }
+        return tokens;
+    }
+
+    /**
+     * Prints the throughput of the median round of an engine.
+     *
+     * @param name The name of the engine.
+     * @param games The number of games per round.
+     * @param tokens The number of tokens placed per round.
+     * @param nanos The durations of all rounds in nanoseconds.
+     */
+    private static void report(String name, int games, long tokens, long[] nanos) {
+        Arrays.sort(nanos);
+        double seconds = nanos[nanos.length / 2] / NANOS_PER_SECOND;
+        System.out.println(String.format("%-6s %12.0f games/s per core %12.0f tokens/s", name, games / seconds,
+                tokens / seconds));
+    }
+
+    /**
+     * Draws a random order of the cells for every game.
+     *
+     * @param cellCount The number of cells of the board.
+     * @param games The number of games.
+     * @param seed The seed of the first game.
+     * @return The order of the cells per game.
+     */
+    private static int[][] cellOrders(int cellCount, int games, long seed) {
+        int[][] orders = new int[games][cellCount];
+        for (int game = 0; game < games; game++) {
+            SplittableRandom random = new SplittableRandom(seed + game);
+            int[] order = orders[game];
+            for (int cell = 0; cell < cellCount; cell++) {
+                int swap = random.nextInt(cell + 1);
+                order[cell] = order[swap];
+                order[swap] = cell;
+            }
+        }
+        return orders;
+    }
+}
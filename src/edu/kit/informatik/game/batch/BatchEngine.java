@@ -0,0 +1,391 @@
+package edu.kit.informatik.game.batch;
+
+import java.util.Arrays;
+
+import edu.kit.informatik.InvalidInputException;
+import edu.kit.informatik.game.Player;
+import edu.kit.informatik.game.board.LineTable;
+import edu.kit.informatik.game.board.WindowTable;
+import edu.kit.informatik.game.logic.ConnectSix;
+import edu.kit.informatik.game.logic.GameInitializer;
+import edu.kit.informatik.game.logic.GameRules;
+import edu.kit.informatik.game.logic.GameState;
+
+/**
+ * Plays many Connect Six games of the same configuration at once.
+ * <p>
+ * Instead of one {@link ConnectSix} object per game, the engine keeps the cells, line masks, current
+ * players, game counters and states of all games in flat primitive arrays. {@link #placeBatch}
+ * applies one move to each of many games in a single loop, following the same rules as
+ * {@link ConnectSix#placeTokens(int[], int[])}, including the early draw once no window is left
+ * open. Like a board, the engine finds wins on the bit masks of the {@link LineTable}. Unlike a
+ * board, it does not count the open windows: it keeps one open window per game and only searches
+ * for another one once that window is closed. Boards whose lines do not fit into a mask scan the
+ * windows of the {@link WindowTable} and count the open windows instead. Cells are stored as the
+ * player ID plus one, with 0 for an empty cell. The engine is not thread-safe, but separate
+ * engines can run in parallel.
+ * </p>
+ */
+public class BatchEngine {
+    /**
+     * Result of a move that was rejected. Accepted moves report the ordinal of the resulting
+     * {@link GameState}.
+     */
+    public static final byte INVALID = -1;
+
+    private static final byte EMPTY = 0;
+    private static final byte RUNNING = (byte) GameState.RUNNING.ordinal();
+    private static final byte WON = (byte) GameState.WON.ordinal();
+    private static final byte DRAW = (byte) GameState.DRAW.ordinal();
+
+    private final int gameCount;
+    private final int firstTurnStones;
+    private final int stonesPerTurn;
+    private final int rows;
+    private final int columns;
+    private final int cellCount;
+    private final int playerAmount;
+    private final int moveWidth;
+    private final int windowLength;
+    private final int windowCount;
+    private final int[] windowCells;
+    private final int[] cellWindowOffsets;
+    private final int[] cellWindows;
+    private final LineTable lineTable;
+    private final int maskCount;
+    private final int[] turnCells;
+
+    private final byte[] cells;
+    private final byte[] currentPlayers;
+    private final int[] gameCounters;
+    private final int[] placedCounts;
+    private final byte[] states;
+    private final long[] lineMasks;
+    private final byte[] windowPlayers;
+    private final int[] openWindows;
+    private final int[] lastOpenWindows;
+
+    /**
+     * Creates an engine with all games in their initial state, played by the default rules.
+     *
+     * @param gameType The game mode, "standard" or "torus".
+     * @param boardSize The size of the board.
+     * @param playerAmount The number of players.
+     * @param gameCount The number of games.
+     * @throws InvalidInputException If the game configuration is invalid.
+     * @throws IllegalArgumentException If the number of games is not positive.
+     */
+    public BatchEngine(final String gameType, final int boardSize, final int playerAmount, final int gameCount)
+            throws InvalidInputException {
+        this(GameInitializer.initializeGame(gameType, boardSize, playerAmount), gameCount);
+    }
+
+    /**
+     * Creates an engine with all games in their initial state.
+     *
+     * @param gameType The game mode, "standard" or "torus".
+     * @param rules The rules of the games.
+     * @param playerAmount The number of players.
+     * @param gameCount The number of games.
+     * @throws InvalidInputException If the game configuration is invalid.
+     * @throws IllegalArgumentException If the number of games is not positive.
+     */
+    public BatchEngine(final String gameType, final GameRules rules, final int playerAmount, final int gameCount)
+            throws InvalidInputException {
+        this(GameInitializer.initializeGame(gameType, rules, playerAmount), gameCount);
+    }
+
+    /**
+     * Creates an engine with all games in the initial state of a template game.
+     *
+     * @param template A new game of the requested configuration.
+     * @param gameCount The number of games.
+     * @throws IllegalArgumentException If the number of games is not positive.
+     */
+    private BatchEngine(ConnectSix template, int gameCount) {
+        if (gameCount <= 0) {
+            throw new IllegalArgumentException("Invalid game count: " + gameCount);
+        }
+        GameRules rules = template.getRules();
+        WindowTable windowTable = template.getWindowTable();
+        this.gameCount = gameCount;
+        this.firstTurnStones = rules.getFirstTurnStones();
+        this.stonesPerTurn = rules.getStonesPerTurn();
+        this.rows = rules.getRows();
+        this.columns = rules.getColumns();
+        this.cellCount = rules.getCellCount();
+        this.playerAmount = template.getPlayerAmount();
+        this.moveWidth = 2 * rules.getMaxStonesPerTurn();
+        this.turnCells = new int[rules.getMaxStonesPerTurn()];
+        this.windowLength = windowTable.getWindowLength();
+        this.windowCount = windowTable.getWindowCount();
+        this.windowCells = windowTable.getWindowCells();
+        this.cellWindowOffsets = windowTable.getCellWindowOffsets();
+        this.cellWindows = windowTable.getCellWindows();
+        this.lineTable = template.getLineTable();
+        this.maskCount = lineTable == null ? 0 : lineTable.getMaskCount(playerAmount);
+
+        this.cells = new byte[gameCount * cellCount];
+        this.currentPlayers = new byte[gameCount];
+        this.gameCounters = new int[gameCount];
+        this.placedCounts = new int[gameCount];
+        this.states = new byte[gameCount];
+        Arrays.fill(states, RUNNING);
+        this.lineMasks = new long[gameCount * maskCount];
+        this.windowPlayers = new byte[lineTable == null ? gameCount * windowCount : 0];
+        this.openWindows = new int[gameCount];
+        Arrays.fill(openWindows, windowCount);
+        this.lastOpenWindows = new int[gameCount];
+    }
+
+    /**
+     * Places the tokens of a turn for the current player in each of the given games.
+     * <p>
+     * Every game takes {@link #getMoveWidth()} values of the moves array: the row and column of each
+     * token in turn. A turn places as many tokens as the rules demand for it, and any further values
+     * of its slot are ignored.
+     * </p>
+     *
+     * @param games The indices of the games to move in.
+     * @param moves The moves, {@link #getMoveWidth()} values per game.
+     * @param count The number of games to move in.
+     * @param results Receives the result of each move: the ordinal of the new {@link GameState},
+     *                or {@link #INVALID} if the move was rejected and the game left unchanged.
+     * @return The number of games that ended with their move.
+     */
+    public int placeBatch(final int[] games, final int[] moves, final int count, final byte[] results) {
+        int finished = 0;
+        for (int i = 0; i < count; i++) {
+            int game = games[i];
+            if (states[game] != RUNNING) {
+                results[i] = INVALID;
+                continue;
+            }
+            int offset = i * moveWidth;
+            int stones = Math.min(gameCounters[game] == 0 ? firstTurnStones : stonesPerTurn,
+                    cellCount - placedCounts[game]);
+            if (!decodeMove(game, moves, offset, stones)) {
+                results[i] = INVALID;
+                continue;
+            }
+
+            int base = game * cellCount;
+            byte token = (byte) (currentPlayers[game] + 1);
+            boolean won = false;
+            for (int stone = 0; stone < stones; stone++) {
+                cells[base + turnCells[stone]] = token;
+                markWindows(game, turnCells[stone], token);
+            }
+            for (int stone = 0; stone < stones && !won; stone++) {
+                won = completesWindow(game, turnCells[stone], token);
+            }
+            gameCounters[game]++;
+            placedCounts[game] += stones;
+
+            if (won) {
+                states[game] = WON;
+            } else if (placedCounts[game] == cellCount || !hasOpenWindow(game)) {
+                states[game] = DRAW;
+            } else {
+                currentPlayers[game] = (byte) ((currentPlayers[game] + 1) % playerAmount);
+            }
+            results[i] = states[game];
+            if (states[game] != RUNNING) {
+                finished++;
+            }
+        }
+        return finished;
+    }
+
+    /**
+     * Resets a game to its initial state.
+     *
+     * @param game The index of the game.
+     */
+    public void reset(final int game) {
+        Arrays.fill(cells, game * cellCount, (game + 1) * cellCount, EMPTY);
+        if (lineTable != null) {
+            Arrays.fill(lineMasks, game * maskCount, (game + 1) * maskCount, 0);
+        } else {
+            Arrays.fill(windowPlayers, game * windowCount, (game + 1) * windowCount, EMPTY);
+        }
+        openWindows[game] = windowCount;
+        lastOpenWindows[game] = 0;
+        currentPlayers[game] = 0;
+        gameCounters[game] = 0;
+        placedCounts[game] = 0;
+        states[game] = RUNNING;
+    }
+
+    /**
+     * Returns the number of games in this engine.
+     *
+     * @return The game count.
+     */
+    public int getGameCount() {
+        return gameCount;
+    }
+
+    /**
+     * Returns the number of values every game takes in the moves array of {@link #placeBatch}.
+     *
+     * @return Twice the largest number of tokens any turn places.
+     */
+    public int getMoveWidth() {
+        return moveWidth;
+    }
+
+    /**
+     * Returns the state of a game.
+     *
+     * @param game The index of the game.
+     * @return The game state.
+     */
+    public GameState getGameState(final int game) {
+        return GameState.values()[states[game]];
+    }
+
+    /**
+     * Returns the current player of a game. In a won game, this is the winner.
+     *
+     * @param game The index of the game.
+     * @return The current player.
+     */
+    public Player getCurrentPlayer(final int game) {
+        return Player.getPlayerByID(currentPlayers[game]);
+    }
+
+    /**
+     * Returns the game counter of a game.
+     *
+     * @param game The index of the game.
+     * @return The number of moves played.
+     */
+    public int getGameCounter(final int game) {
+        return gameCounters[game];
+    }
+
+    /**
+     * Returns the token on a cell of a game.
+     *
+     * @param game The index of the game.
+     * @param cell The row-major index of the cell.
+     * @return The player owning the cell, or {@code null} if the cell is empty.
+     */
+    public Player getCell(final int game, final int cell) {
+        byte token = cells[game * cellCount + cell];
+        return token == EMPTY ? null : Player.getPlayerByID(token - 1);
+    }
+
+    /**
+     * Converts the tokens of a move into cell indices and checks that they lie on the board, on empty
+     * cells and on distinct cells.
+     *
+     * @param game The index of the game.
+     * @param moves The moves.
+     * @param offset The index of the move's first value.
+     * @param stones The number of tokens of the move.
+     * @return True if the move is valid, false otherwise.
+     */
+    private boolean decodeMove(int game, int[] moves, int offset, int stones) {
+        int base = game * cellCount;
+        for (int stone = 0; stone < stones; stone++) {
+            int row = moves[offset + 2 * stone];
+            int column = moves[offset + 2 * stone + 1];
+            if (!isValidPosition(row, column)) {
+                return false;
+            }
+            int cell = row * columns + column;
+            if (cells[base + cell] != EMPTY) {
+                return false;
+            }
+            for (int other = 0; other < stone; other++) {
+                if (cell == turnCells[other]) {
+                    return false;
+                }
+            }
+            turnCells[stone] = cell;
+        }
+        return true;
+    }
+
+    /**
+     * Checks if a position lies on the board. Like {@link ConnectSix}, placements are validated
+     * before indices are wrapped, so torus boards accept the same positions as standard boards.
+     *
+     * @param row The row index.
+     * @param column The column index.
+     * @return True if the position is valid, false otherwise.
+     */
+    private boolean isValidPosition(int row, int column) {
+        return row >= 0 && row < rows && column >= 0 && column < columns;
+    }
+
+    /**
+     * Records a token in the line masks. Without a line table, the token is recorded in the player
+     * sets of all windows through its cell instead, and the windows closed by it are counted.
+     *
+     * @param game The index of the game.
+     * @param cell The cell index.
+     * @param token The token of the current player.
+     */
+    private void markWindows(int game, int cell, byte token) {
+        if (lineTable != null) {
+            lineTable.set(lineMasks, game * maskCount, cell, token - 1);
+            return;
+        }
+        int base = game * windowCount;
+        int bit = 1 << (token - 1);
+        for (int i = cellWindowOffsets[cell]; i < cellWindowOffsets[cell + 1]; i++) {
+            int window = base + cellWindows[i];
+            int players = windowPlayers[window];
+            if (players != 0 && (players & bit) == 0 && (players & (players - 1)) == 0) {
+                openWindows[game]--;
+            }
+            windowPlayers[window] = (byte) (players | bit);
+        }
+    }
+
+    /**
+     * Checks if a game has a window left that can still be completed. With a line table, the open
+     * window found last is checked first, and a new one is only searched once it is closed.
+     *
+     * @param game The index of the game.
+     * @return True if a window is open, false otherwise.
+     */
+    private boolean hasOpenWindow(int game) {
+        if (lineTable == null) {
+            return openWindows[game] > 0;
+        }
+        lastOpenWindows[game] = lineTable.findOpenWindow(lineMasks, game * maskCount, playerAmount,
+                lastOpenWindows[game]);
+        return lastOpenWindows[game] >= 0;
+    }
+
+    /**
+     * Checks if any window through the given cell is completely filled with a token.
+     *
+     * @param game The index of the game.
+     * @param cell The cell index.
+     * @param token The token of the current player.
+     * @return True if a winning line is found, false otherwise.
+     */
+    private boolean completesWindow(int game, int cell, byte token) {
+        if (lineTable != null) {
+            return lineTable.hasRunThrough(lineMasks, game * maskCount, cell, token - 1);
+        }
+        int base = game * cellCount;
+        for (int i = cellWindowOffsets[cell]; i < cellWindowOffsets[cell + 1]; i++) {
+            int start = cellWindows[i] * windowLength;
+            int end = start + windowLength;
+            int current = start;
+            while (current < end && cells[base + windowCells[current]] == token) {
+                current++;
+            }
+            if (current == end) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
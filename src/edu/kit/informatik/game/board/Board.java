@@ -1,50 +1,138 @@
 package edu.kit.informatik.game.board;
 
-import java.util.Arrays;
+import java.util.StringJoiner;
 
 import edu.kit.informatik.InvalidInputException;
 import edu.kit.informatik.game.Player;
 import edu.kit.informatik.game.logic.ConnectSix;
+import edu.kit.informatik.game.logic.GameRules;
 import edu.kit.informatik.game.logic.GameState;
 
 /**
  * Abstract base class for game boards.
+ * <p>
+ * Boards have {@code rows x columns} cells, and the {@link GameRules} decide how many tokens in a
+ * row win and how many tokens every turn places.
+ * </p>
  */
 public abstract class Board {
-    protected static final int WINNING_COUNT = 6;
-    protected static final int[][] DIRECTIONS = {
-        {1, 0}, {-1, 0}, // Vertical
-        {0, 1}, {0, -1}, // Horizontal
-        {1, 1}, {-1, -1}, // Diagonal (top-left to bottom-right)
-        {1, -1}, {-1, 1}  // Diagonal (top-right to bottom-left)
-    };
-
-    protected Player[][] board;
+    protected Player[] board;
+    protected int rows;
+    protected int columns;
+    private GameRules rules;
+    private WindowTable windowTable;
+    private LineTable lineTable;
+    private long[] lineMasks;
+    private int[] placedCells;
+    private int placedCount;
+    private byte[] windowPlayers;
+    private int openWindows;
 
     /**
-     * Initializes the board with the specified size.
+     * Initializes a square board with the specified size and the default rules.
      *
      * @param size The size of the board (length and width).
      */
     public void initialize(int size) {
-        board = new Player[size][size];
+        initialize(GameRules.defaults(size));
+    }
+
+    /**
+     * Initializes the board for the given rules. A board that already has these rules is cleared
+     * in place instead of being allocated again. The window and line tables are shared between all
+     * boards of the same type and rules. Wins and closed windows are found on the bit masks of the
+     * {@link LineTable}; boards whose lines do not fit into a mask scan the windows of the
+     * {@link WindowTable} instead.
+     *
+     * @param rules The rules of the game.
+     */
+    public void initialize(GameRules rules) {
+        if (board != null && rules.equals(this.rules)) {
+            clear();
+            return;
+        }
+        this.rules = rules;
+        this.rows = rules.getRows();
+        this.columns = rules.getColumns();
+        board = new Player[rules.getCellCount()];
+        placedCells = new int[rules.getCellCount()];
+        placedCount = 0;
+        windowTable = WindowTable.forBoard(this, rows, columns, rules.getWinLength());
+        lineTable = LineTable.forBoard(this, rows, columns, rules.getWinLength());
+        lineMasks = lineTable == null ? null : new long[lineTable.getMaskCount(Player.getMaxAmountOfPlayers())];
+        windowPlayers = lineTable == null ? new byte[windowTable.getWindowCount()] : null;
+        openWindows = windowTable.getWindowCount();
     }
 
+    /**
+     * Removes all tokens from the board. Only the cells that were actually placed on are touched,
+     * so the cost is proportional to the number of tokens rather than the board area.
+     */
+    public void clear() {
+        int[] cellWindows = windowTable.getCellWindows();
+        int[] offsets = windowTable.getCellWindowOffsets();
+        for (int i = 0; i < placedCount; i++) {
+            int cell = placedCells[i];
+            if (lineTable != null) {
+                lineTable.unset(lineMasks, 0, cell, board[cell].getPlayerID());
+            } else {
+                for (int j = offsets[cell]; j < offsets[cell + 1]; j++) {
+                    windowPlayers[cellWindows[j]] = 0;
+                }
+            }
+            board[cell] = null;
+        }
+        placedCount = 0;
+        openWindows = windowTable.getWindowCount();
+    }
+
+    /**
+     * Returns an independent copy of this board. The cell arrays are copied flat, the immutable
+     * window table is shared.
+     *
+     * @return The copied board.
+     */
+    public Board copy() {
+        Board copy = createEmpty();
+        copy.rules = rules;
+        copy.rows = rows;
+        copy.columns = columns;
+        copy.board = board.clone();
+        copy.placedCells = placedCells.clone();
+        copy.placedCount = placedCount;
+        copy.windowTable = windowTable;
+        copy.lineTable = lineTable;
+        copy.lineMasks = lineMasks == null ? null : lineMasks.clone();
+        copy.windowPlayers = windowPlayers == null ? null : windowPlayers.clone();
+        copy.openWindows = openWindows;
+        return copy;
+    }
+
+    /**
+     * Creates an uninitialized board of the same type.
+     *
+     * @return The new board.
+     */
+    protected abstract Board createEmpty();
+
+    /**
+     * Returns the type name of the board, as accepted on the command line.
+     *
+     * @return The board type.
+     */
+    public abstract String getType();
+
     /**
      * Returns the current game board as a string.
      *
      * @return The game board.
      */
     public String getBoard() {
-        // Some magic board creation
-        return Arrays.deepToString(board)
-                .replace("null", "**")
-                .replace("], ", "\n")
-                .replace("[[", "")
-                .replace("]]", "")
-                .replace("[", "")
-                .replace(",", "")
-                .replace("  ", " ");
+        StringJoiner lines = new StringJoiner("\n");
+        for (int row = 0; row < rows; row++) {
+            lines.add(formatLine(row * columns, 1, columns));
+        }
+        return lines.toString();
     }
 
     /**
@@ -56,21 +144,11 @@ public abstract class Board {
      * @throws InvalidInputException If the index is out of bounds.
      */
     public String printRowOrColumn(int index, boolean horizontal) throws InvalidInputException {
-        if (index < 0 || index >= board.length) {
+        if (index < 0 || index >= (horizontal ? rows : columns)) {
             throw new InvalidInputException("invalid row or column index: " + index);
         }
 
-        Player[] line = new Player[board.length];
-        for (int i = 0; i < board.length; i++) {
-            line[i] = horizontal ? board[index][i] : board[i][index];
-        }
-        
-        return Arrays.deepToString(line)
-                .replace("null", "**")
-                .replace("[", "")
-                .replace(" ", "")
-                .replace(",", " ")
-                .replace("]", "");
+        return horizontal ? formatLine(index * columns, 1, columns) : formatLine(index, columns, rows);
     }
 
     /**
@@ -82,14 +160,14 @@ public abstract class Board {
      * @throws InvalidInputException If the cell is out of bounds.
      */
     public String state(int row, int column) throws InvalidInputException {
-        row = wrapIndex(row, board.length);
-        column = wrapIndex(column, board.length);
+        row = wrapIndex(row, rows);
+        column = wrapIndex(column, columns);
 
         if (!isValidPosition(row, column)) {
             throw new InvalidInputException("invalid row or column.");
         }
 
-        return isEmptyCell(row, column) ? "**" : board[row][column].toString();
+        return isEmptyCell(row, column) ? "**" : board[cellIndex(row, column)].toString();
     }
 
     /**
@@ -105,20 +183,32 @@ public abstract class Board {
      */
     public String place(int firstRow, int firstColumn, int secondRow, int secondColumn, ConnectSix connectSix)
             throws InvalidInputException {
-        validatePlacement(firstRow, firstColumn, secondRow, secondColumn);
+        return place(new int[] {firstRow, secondRow}, new int[] {firstColumn, secondColumn}, connectSix);
+    }
 
-        // Wrap indices for specific board types
-        firstRow = wrapIndex(firstRow, board.length);
-        firstColumn = wrapIndex(firstColumn, board.length);
-        secondRow = wrapIndex(secondRow, board.length);
-        secondColumn = wrapIndex(secondColumn, board.length);
+    /**
+     * Places the tokens of a turn on the board. The number of tokens has to match the rules.
+     *
+     * @param tokenRows Row positions of the tokens.
+     * @param tokenColumns Column positions of the tokens.
+     * @param connectSix Reference to the game logic.
+     * @return A message indicating the result of the placement.
+     * @throws InvalidInputException If the placement is invalid.
+     */
+    public String place(int[] tokenRows, int[] tokenColumns, ConnectSix connectSix) throws InvalidInputException {
+        int stones = rules.getStonesForTurn(connectSix.getGameCounter(), placedCount);
+        validatePlacement(tokenRows, tokenColumns, stones);
 
-        // Place tokens on the board
-        setField(firstRow, firstColumn, secondRow, secondColumn, connectSix.getCurrentPlayer());
+        // Wrap indices for specific board types and place tokens on the board
+        int firstCell = placedCount;
+        for (int i = 0; i < stones; i++) {
+            setField(cellIndex(wrapIndex(tokenRows[i], rows), wrapIndex(tokenColumns[i], columns)),
+                    connectSix.getCurrentPlayer());
+        }
         connectSix.setGameCounter(connectSix.getGameCounter() + 1);
 
         // Determine and return the game state
-        return determineGameState(connectSix);
+        return determineGameState(connectSix, firstCell);
     }
 
     /**
@@ -138,7 +228,18 @@ public abstract class Board {
      * @return True if the position is valid, false otherwise.
      */
     protected boolean isValidPosition(int row, int column) {
-        return row >= 0 && row < board.length && column >= 0 && column < board.length;
+        return row >= 0 && row < rows && column >= 0 && column < columns;
+    }
+
+    /**
+     * Returns the row-major index of a cell.
+     *
+     * @param row The row index.
+     * @param column The column index.
+     * @return The cell index.
+     */
+    protected int cellIndex(int row, int column) {
+        return row * columns + column;
     }
 
     /**
@@ -149,28 +250,37 @@ public abstract class Board {
      * @return True if the cell is empty, false otherwise.
      */
     protected boolean isEmptyCell(int row, int column) {
-        return board[row][column] == null;
+        return board[cellIndex(row, column)] == null;
     }
 
     /**
      * Validates the placement of tokens on the board.
      *
-     * @param firstRow Row position of the first token.
-     * @param firstColumn Column position of the first token.
-     * @param secondRow Row position of the second token.
-     * @param secondColumn Column position of the second token.
+     * @param tokenRows Row positions of the tokens.
+     * @param tokenColumns Column positions of the tokens.
+     * @param stones The number of tokens the turn has to place.
      * @throws InvalidInputException If the placement is invalid.
      */
-    private void validatePlacement(int firstRow, int firstColumn, int secondRow, int secondColumn)
-            throws InvalidInputException {
-        if (!isValidPosition(firstRow, firstColumn) || !isValidPosition(secondRow, secondColumn)) {
-            throw new InvalidInputException("invalid row or column.");
+    private void validatePlacement(int[] tokenRows, int[] tokenColumns, int stones) throws InvalidInputException {
+        if (tokenRows.length != stones || tokenColumns.length != stones) {
+            throw new InvalidInputException("invalid number of tokens. Expected " + stones + ".");
+        }
+        for (int i = 0; i < stones; i++) {
+            if (!isValidPosition(tokenRows[i], tokenColumns[i])) {
+                throw new InvalidInputException("invalid row or column.");
+            }
         }
-        if (!isEmptyCell(firstRow, firstColumn) || !isEmptyCell(secondRow, secondColumn)) {
-            throw new InvalidInputException("one or both cells are already occupied.");
+        for (int i = 0; i < stones; i++) {
+            if (!isEmptyCell(tokenRows[i], tokenColumns[i])) {
+                throw new InvalidInputException("one or both cells are already occupied.");
+            }
         }
-        if (firstRow == secondRow && firstColumn == secondColumn) {
-            throw new InvalidInputException("tokens must be placed in different positions.");
+        for (int i = 0; i < stones; i++) {
+            for (int j = i + 1; j < stones; j++) {
+                if (tokenRows[i] == tokenRows[j] && tokenColumns[i] == tokenColumns[j]) {
+                    throw new InvalidInputException("tokens must be placed in different positions.");
+                }
+            }
         }
     }
 
@@ -178,10 +288,11 @@ public abstract class Board {
      * Determines the current game state and returns the appropriate message.
      *
      * @param connectSix Reference to the game logic.
+     * @param firstToken Index of the turn's first token in the placement order.
      * @return A message indicating the current game state.
      */
-    private String determineGameState(ConnectSix connectSix) {
-        GameState state = getGameState(connectSix);
+    private String determineGameState(ConnectSix connectSix, int firstToken) {
+        GameState state = getGameState(connectSix, firstToken);
         connectSix.setCurrentGameState(state);
 
         if (state == GameState.WON) {
@@ -197,92 +308,197 @@ public abstract class Board {
 
     /**
      * Returns the current game state.
+     * <p>
+     * The game was running before the last placement, so a winning line can only pass through
+     * one of the tokens just placed. The game is a draw once the board is full or no window is
+     * left that a single player could still complete.
+     * </p>
      *
      * @param connectSix Reference to the game logic.
+     * @param firstToken Index of the turn's first token in the placement order.
      * @return The current game state.
      */
-    private GameState getGameState(ConnectSix connectSix) {
-        if (hasWinningLine(connectSix.getCurrentPlayer())) {
-            return GameState.WON;
-        } else if (connectSix.getGameCounter() == (board.length * board.length) / 2) {
+    private GameState getGameState(ConnectSix connectSix, int firstToken) {
+        Player currentPlayer = connectSix.getCurrentPlayer();
+        for (int i = firstToken; i < placedCount; i++) {
+            if (completesWindow(placedCells[i], currentPlayer)) {
+                return GameState.WON;
+            }
+        }
+        if (openWindows == 0 || placedCount == board.length) {
             return GameState.DRAW;
-        } else {
-            return GameState.RUNNING;
         }
+        return GameState.RUNNING;
     }
 
     /**
-     * Checks if a player has a winning line on the board.
+     * Checks if any window through the given cell is completely filled by a player.
      *
+     * @param cell The cell index.
      * @param currentPlayer The current player.
-     * @return True if the player has a winning line, false otherwise.
+     * @return True if a winning line is found, false otherwise.
      */
-    private boolean hasWinningLine(Player currentPlayer) {
-        for (int row = 0; row < board.length; row++) {
-            for (int column = 0; column < board.length; column++) {
-                if (board[row][column] == currentPlayer && checkAllDirections(row, column, currentPlayer)) {
-                    return true;
-                }
+    private boolean completesWindow(int cell, Player currentPlayer) {
+        if (lineTable != null) {
+            return lineTable.hasRunThrough(lineMasks, 0, cell, currentPlayer.getPlayerID());
+        }
+        int[] windowCells = windowTable.getWindowCells();
+        int[] cellWindows = windowTable.getCellWindows();
+        int[] offsets = windowTable.getCellWindowOffsets();
+        int windowLength = windowTable.getWindowLength();
+
+        for (int i = offsets[cell]; i < offsets[cell + 1]; i++) {
+            int start = cellWindows[i] * windowLength;
+            int end = start + windowLength;
+            int current = start;
+            while (current < end && board[windowCells[current]] == currentPlayer) {
+                current++;
+            }
+            if (current == end) {
+                return true;
             }
         }
         return false;
     }
 
     /**
-     * Checks all possible directions for a winning line starting from a given position.
+     * Formats a line of cells, separated by whitespaces.
      *
-     * @param row The starting row.
-     * @param column The starting column.
-     * @param currentPlayer The current player.
-     * @return True if a winning line is found, false otherwise.
+     * @param start The index of the first cell.
+     * @param step The index distance between two cells of the line.
+     * @param length The number of cells of the line.
+     * @return The line as a string.
      */
-    private boolean checkAllDirections(int row, int column, Player currentPlayer) {
-        for (int[] direction : DIRECTIONS) {
-            if (checkDirection(row, column, direction[0], direction[1], currentPlayer, 1)) {
-                return true;
-            }
+    private String formatLine(int start, int step, int length) {
+        StringJoiner line = new StringJoiner(" ");
+        for (int i = 0; i < length; i++) {
+            Player player = board[start + i * step];
+            line.add(player == null ? "**" : player.toString());
         }
-        return false;
+        return line.toString();
     }
 
     /**
-     * Recursively checks a specific direction for a winning line.
+     * Sets a field on the game board with a token of the current player.
      *
-     * @param row The current row.
-     * @param column The current column.
-     * @param rowDelta The row increment for the direction.
-     * @param columnDelta The column increment for the direction.
+     * @param cell Index of the token.
      * @param currentPlayer The current player.
-     * @param count The current count of consecutive tokens.
-     * @return True if a winning line is found, false otherwise.
      */
-    private boolean checkDirection(int row, int column, int rowDelta, int columnDelta, Player currentPlayer, int count) {
-        int newRow = wrapIndex(row + rowDelta, board.length);
-        int newColumn = wrapIndex(column + columnDelta, board.length);
+    private void setField(int cell, Player currentPlayer) {
+        board[cell] = currentPlayer;
+        placedCells[placedCount++] = cell;
+        if (lineTable != null) {
+            openWindows -= lineTable.countClosedWindows(lineMasks, 0, Player.getMaxAmountOfPlayers(), cell,
+                    currentPlayer.getPlayerID());
+            lineTable.set(lineMasks, 0, cell, currentPlayer.getPlayerID());
+        } else {
+            markWindows(cell, currentPlayer);
+        }
+    }
 
-        if (!isValidPosition(newRow, newColumn) || board[newRow][newColumn] != currentPlayer) {
-            return false;
+    /**
+     * Records a token in the player sets of all windows through its cell. A window stays open
+     * as long as it contains tokens of at most one player.
+     *
+     * @param cell Index of the token.
+     * @param currentPlayer The player owning the token.
+     */
+    private void markWindows(int cell, Player currentPlayer) {
+        int[] cellWindows = windowTable.getCellWindows();
+        int[] offsets = windowTable.getCellWindowOffsets();
+        int bit = 1 << currentPlayer.getPlayerID();
+
+        for (int i = offsets[cell]; i < offsets[cell + 1]; i++) {
+            int window = cellWindows[i];
+            int players = windowPlayers[window];
+            if (players != 0 && (players & bit) == 0 && (players & (players - 1)) == 0) {
+                openWindows--;
+            }
+            windowPlayers[window] = (byte) (players | bit);
         }
+    }
+
+    /**
+     * Returns the window table of this board.
+     *
+     * @return The shared window table for this board type and rules.
+     */
+    public WindowTable getWindowTable() {
+        return windowTable;
+    }
+
+    /**
+     * Returns the line table of this board.
+     *
+     * @return The shared line table for this board type and rules, or {@code null} if the lines of
+     *         the board do not fit into a mask.
+     */
+    public LineTable getLineTable() {
+        return lineTable;
+    }
 
-        count++;
-        if (count == WINNING_COUNT) {
-            return true;
+    /**
+     * Drops the line masks, so wins and closed windows are found through the window table from
+     * now on until the board is initialized for other rules. Used to compare both paths.
+     */
+    void disableLineTable() {
+        if (lineTable == null) {
+            return;
         }
+        lineTable = null;
+        lineMasks = null;
+        windowPlayers = new byte[windowTable.getWindowCount()];
+        openWindows = windowTable.getWindowCount();
+        for (int i = 0; i < placedCount; i++) {
+            markWindows(placedCells[i], board[placedCells[i]]);
+        }
+    }
 
-        return checkDirection(newRow, newColumn, rowDelta, columnDelta, currentPlayer, count);
+    /**
+     * Returns the number of windows that contain tokens of at most one player and could
+     * therefore still be completed.
+     *
+     * @return The number of open windows.
+     */
+    public int getOpenWindowCount() {
+        return openWindows;
     }
 
     /**
-     * Sets two fields on the game board with the tokens of the current player.
+     * Returns the rules the board was initialized with.
      *
-     * @param firstRow Row position of the first token.
-     * @param firstColumn Column position of the first token.
-     * @param secondRow Row position of the second token.
-     * @param secondColumn Column position of the second token.
-     * @param currentPlayer The current player.
+     * @return The game rules.
+     */
+    public GameRules getRules() {
+        return rules;
+    }
+
+    /**
+     * Returns the token on a cell.
+     *
+     * @param cell The row-major index of the cell.
+     * @return The player owning the cell, or {@code null} if the cell is empty.
+     */
+    public Player getCell(int cell) {
+        return board[cell];
+    }
+
+    /**
+     * Returns the number of tokens on the board.
+     *
+     * @return The number of placed tokens.
+     */
+    public int getPlacedCount() {
+        return placedCount;
+    }
+
+    /**
+     * Returns the cell of a placed token, in placement order.
+     *
+     * @param index The index of the token, between 0 and {@link #getPlacedCount()} - 1.
+     * @return The row-major index of the token's cell.
      */
-    private void setField(int firstRow, int firstColumn, int secondRow, int secondColumn, Player currentPlayer) {
-        board[firstRow][firstColumn] = currentPlayer;
-        board[secondRow][secondColumn] = currentPlayer;
+    public int getPlacedCell(int index) {
+        return placedCells[index];
     }
 }
@@ -0,0 +1,230 @@
+package edu.kit.informatik.game.board;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import edu.kit.informatik.InvalidInputException;
+import edu.kit.informatik.game.logic.ConnectSix;
+import edu.kit.informatik.game.logic.GameInitializer;
+import edu.kit.informatik.game.logic.GameRules;
+import edu.kit.informatik.game.logic.GameState;
+
+/**
+ * Command line benchmark of the two ways a board finds wins and closed windows.
+ * <p>
+ * Random games are played once on boards using their {@link LineTable} and once on boards
+ * scanning their {@link WindowTable}. Both runs play the same games from the same seed. Before
+ * timing, the games are played side by side on both paths, and the game state and the number of
+ * open windows are compared after every turn. After a warm-up run, both paths are timed in
+ * alternating rounds, and the median round of each path is reported.
+ * </p>
+ *
+ * <p>
+ * Usage: {@code java edu.kit.informatik.game.board.BoardBenchmark <type> <rules> <players> <games> [seed]}
+ * </p>
+ */
+public final class BoardBenchmark {
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final int ROUNDS = 7;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private BoardBenchmark() {
+        throw new AssertionError("Utility class constructor.");
+    }
+
+    /**
+     * Validates and times both paths for random games of the given configuration.
+     *
+     * @param args The board type, the rules, the number of players, the number of games and
+     *             optionally the seed.
+     */
+    public static void main(final String[] args) {
+        if (args.length < 4 || args.length > 5) {
+            System.out.println("Error, usage: BoardBenchmark <type> <rules> <players> <games> [seed]");
+            return;
+        }
+        try {
+            GameRules rules = GameRules.parse(args[1]);
+            int players = Integer.parseInt(args[2]);
+            int games = Integer.parseInt(args[3]);
+            long seed = args.length == 5 ? Long.parseLong(args[4]) : 0;
+            GameInitializer.initializeGame(args[0], rules, players);
+            Board lineBoard = createBoard(args[0]);
+            Board windowBoard = createBoard(args[0]);
+            ConnectSix lineGame = new ConnectSix(lineBoard, rules, players);
+            ConnectSix windowGame = new ConnectSix(windowBoard, rules, players);
+            windowBoard.disableLineTable();
+            if (lineBoard.getLineTable() == null) {
+                System.out.println("Error, the lines of this board do not fit into a mask.");
+                return;
+            }
+
+            String mismatch = compare(lineGame, lineBoard, windowGame, windowBoard, games, seed);
+            if (mismatch != null) {
+                System.out.println("Error, the paths differ: " + mismatch);
+                return;
+            }
+            System.out.println("validated " + games + " games");
+            long tokens = play(lineGame, games, seed);
+            play(windowGame, games, seed);
+            long[] lineNanos = new long[ROUNDS];
+            long[] windowNanos = new long[ROUNDS];
+            for (int round = 0; round < ROUNDS; round++) {
+                lineNanos[round] = time(lineGame, games, seed);
+                windowNanos[round] = time(windowGame, games, seed);
+            }
+            report("lines", games, tokens, lineNanos);
+            report("window", games, tokens, windowNanos);
+        } catch (InvalidInputException e) {
+            System.out.println("Error, " + e.getMessage());
+        } catch (NumberFormatException e) {
+            System.out.println("Error, invalid number: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Plays the same random games on both paths and compares them after every turn.
+     *
+     * @param lineGame A game whose board uses its line table.
+     * @param lineBoard The board of the line game.
+     * @param windowGame A game whose board scans its window table.
+     * @param windowBoard The board of the window game.
+     * @param games The number of games.
+     * @param seed The seed of the first game.
+     * @return A description of the first difference, or {@code null} if the paths agree.
+     * @throws InvalidInputException If a random move is rejected.
+     */
+    private static String compare(ConnectSix lineGame, Board lineBoard, ConnectSix windowGame, Board windowBoard,
+            int games, long seed) throws InvalidInputException {
+        int cellCount = lineGame.getRules().getCellCount();
+        int[] lineCells = new int[cellCount];
+        int[] windowCells = new int[cellCount];
+        for (int game = 0; game < games; game++) {
+            lineGame.resetGame();
+            windowGame.resetGame();
+            SplittableRandom lineRandom = new SplittableRandom(seed + game);
+            SplittableRandom windowRandom = new SplittableRandom(seed + game);
+            int lineEmpty = fill(lineCells);
+            int windowEmpty = fill(windowCells);
+            while (lineGame.getCurrentGameState() == GameState.RUNNING) {
+                lineEmpty = playTurn(lineGame, lineRandom, lineCells, lineEmpty);
+                windowEmpty = playTurn(windowGame, windowRandom, windowCells, windowEmpty);
+                if (lineGame.getCurrentGameState() != windowGame.getCurrentGameState()
+                        || lineBoard.getOpenWindowCount() != windowBoard.getOpenWindowCount()) {
+                    return "game " + game + " after " + lineGame.getPlacedCount() + " tokens: "
+                            + lineGame.getCurrentGameState() + " with " + lineBoard.getOpenWindowCount()
+                            + " open windows, " + windowGame.getCurrentGameState() + " with "
+                            + windowBoard.getOpenWindowCount() + " open windows";
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Times a round of random games on a path.
+     *
+     * @param game The game to play on.
+     * @param games The number of games.
+     * @param seed The seed of the first game.
+     * @return The duration of the round in nanoseconds.
+     * @throws InvalidInputException If a random move is rejected.
+     */
+    private static long time(ConnectSix game, int games, long seed) throws InvalidInputException {
+        long start = System.nanoTime();
+        play(game, games, seed);
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Prints the throughput of the median round of a path.
+     *
+     * @param name The name of the path.
+     * @param games The number of games per round.
+     * @param tokens The number of tokens placed per round.
+     * @param nanos The durations of all rounds in nanoseconds.
+     */
+    private static void report(String name, int games, long tokens, long[] nanos) {
+        Arrays.sort(nanos);
+        double seconds = nanos[nanos.length / 2] / NANOS_PER_SECOND;
+        System.out.println(String.format("%-6s %12.0f games/s %12.0f tokens/s", name, games / seconds,
+                tokens / seconds));
+    }
+
+    /**
+     * Plays random games to their end.
+     *
+     * @param game The game to play on.
+     * @param games The number of games.
+     * @param seed The seed of the first game.
+     * @return The number of placed tokens.
+     * @throws InvalidInputException If a random move is rejected.
+     */
+    private static long play(ConnectSix game, int games, long seed) throws InvalidInputException {
+        int[] emptyCells = new int[game.getRules().getCellCount()];
+        long tokens = 0;
+        for (int index = 0; index < games; index++) {
+            game.resetGame();
+            SplittableRandom random = new SplittableRandom(seed + index);
+            int empty = fill(emptyCells);
+            while (game.getCurrentGameState() == GameState.RUNNING) {
+                empty = playTurn(game, random, emptyCells, empty);
+            }
+            tokens += game.getPlacedCount();
+        }
+        return tokens;
+    }
+
+    /**
+     * Plays a turn with tokens on random empty cells.
+     *
+     * @param game A running game.
+     * @param random The source of the moves.
+     * @param emptyCells The empty cells at the front of the array.
+     * @param empty The number of empty cells.
+     * @return The number of empty cells after the turn.
+     * @throws InvalidInputException If the move is rejected.
+     */
+    private static int playTurn(ConnectSix game, SplittableRandom random, int[] emptyCells, int empty)
+            throws InvalidInputException {
+        GameRules rules = game.getRules();
+        int stones = rules.getStonesForTurn(game.getGameCounter(), game.getPlacedCount());
+        int[] rows = new int[stones];
+        int[] columns = new int[stones];
+        int remaining = empty;
+        for (int stone = 0; stone < stones; stone++) {
+            int pick = random.nextInt(remaining);
+            int cell = emptyCells[pick];
+            emptyCells[pick] = emptyCells[--remaining];
+            rows[stone] = cell / rules.getColumns();
+            columns[stone] = cell % rules.getColumns();
+        }
+        game.placeTokens(rows, columns);
+        return remaining;
+    }
+
+    /**
+     * Marks all cells as empty.
+     *
+     * @param emptyCells The array of empty cells.
+     * @return The number of cells.
+     */
+    private static int fill(int[] emptyCells) {
+        for (int cell = 0; cell < emptyCells.length; cell++) {
+            emptyCells[cell] = cell;
+        }
+        return emptyCells.length;
+    }
+
+    /**
+     * Creates an empty board of the given game type.
+     *
+     * @param gameType The game mode, "standard" or "torus".
+     * @return The new board.
+     */
+    private static Board createBoard(String gameType) {
+        return gameType.equals("standard") ? new StandardBoard() : new TorusBoard();
+    }
+}
@@ -0,0 +1,561 @@
+package edu.kit.informatik.game.board;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precomputed table of all lines of a board for scanning them as bit masks.
+ * <p>
+ * Every row, column and diagonal of the board is a line, and a line is stored as a {@code long}
+ * with a bit per cell, so a single shift and combination covers a whole line instead of one cell.
+ * Lines of a torus board are cycles, and their masks are rotated instead of shifted, so runs and
+ * windows across the board edge are found as well. A board whose lines do not all fit into a
+ * {@code long} has no line table and has to scan its {@link WindowTable} instead.
+ * </p>
+ *
+ * <p>
+ * The masks themselves are kept by the caller, so a single board and a batch of boards can both
+ * store them in flat arrays. The masks of one board are {@link #getMaskCount(int)} consecutive
+ * values starting at a base index: one block of {@link #getLineCount()} masks with the occupied
+ * cells, followed by one block per player with the cells of that player's tokens.
+ * </p>
+ *
+ * <p>
+ * Tables are immutable and shared between all boards of the same type, dimensions and window
+ * length. The arrays behind the table must therefore never be modified.
+ * </p>
+ */
+public final class LineTable {
+    private static final int[][] AXES = {
+        {1, 0}, // Vertical
+        {0, 1}, // Horizontal
+        {1, 1}, // Diagonal (top-left to bottom-right)
+        {1, -1} // Diagonal (top-right to bottom-left)
+    };
+    private static final Map<String, LineTable> CACHE = new ConcurrentHashMap<>();
+
+    private final int windowLength;
+    private final int cellCount;
+    private int lineCount;
+    private final int[] cellLines;
+    private final long[] cellBits;
+    private final long[] reachMasks;
+    private final long[] coveringStarts;
+    private int[] lineAxes;
+    private int[] lineLengths;
+    private long[] lineMasks;
+    private long[] wrapMasks;
+    private int[] lineCellOffsets;
+    private final int[] lineCells;
+
+    /**
+     * Builds the table by following every axis through every cell. Cells are addressed by their
+     * row-major index, and the values per cell and axis are stored at {@code cell * 4 + axis}.
+     *
+     * @param board A board of the requested type, used to wrap indices.
+     * @param rows The number of rows of the board.
+     * @param columns The number of columns of the board.
+     * @param windowLength The number of cells per window.
+     */
+    private LineTable(Board board, int rows, int columns, int windowLength) {
+        this.windowLength = windowLength;
+        this.cellCount = rows * columns;
+        this.cellLines = new int[AXES.length * cellCount];
+        this.cellBits = new long[AXES.length * cellCount];
+        this.reachMasks = new long[AXES.length * cellCount];
+        this.coveringStarts = new long[AXES.length * cellCount];
+        this.lineAxes = new int[AXES.length * cellCount];
+        this.lineLengths = new int[AXES.length * cellCount];
+        this.lineCellOffsets = new int[AXES.length * cellCount + 1];
+        this.lineCells = new int[AXES.length * cellCount];
+        Arrays.fill(cellLines, -1);
+
+        boolean[] cyclic = new boolean[AXES.length * cellCount];
+        int[] cellPositions = new int[AXES.length * cellCount];
+        for (int axis = 0; axis < AXES.length; axis++) {
+            for (int cell = 0; cell < cellCount; cell++) {
+                if (cellLines[cell * AXES.length + axis] < 0) {
+                    cyclic[lineCount] = addLine(board, rows, columns, axis, cell, cellPositions);
+                }
+            }
+        }
+
+        lineAxes = Arrays.copyOf(lineAxes, lineCount);
+        lineLengths = Arrays.copyOf(lineLengths, lineCount);
+        lineCellOffsets = Arrays.copyOf(lineCellOffsets, lineCount + 1);
+        lineMasks = new long[lineCount];
+        wrapMasks = new long[lineCount];
+        for (int line = 0; line < lineCount; line++) {
+            lineMasks[line] = lowBits(Math.min(lineLengths[line], Long.SIZE));
+            wrapMasks[line] = cyclic[line] ? lineMasks[line] : 0;
+        }
+        for (int index = 0; index < cellLines.length; index++) {
+            int line = cellLines[index];
+            int position = cellPositions[index];
+            cellBits[index] = 1L << position;
+            reachMasks[index] = around(line, position, windowLength - 1, windowLength - 1);
+            coveringStarts[index] = around(line, position, windowLength - 1, 0) & windowStarts(line);
+        }
+    }
+
+    /**
+     * Returns the shared line table for the given board type and dimensions, building it on first use.
+     *
+     * @param board A board of the requested type, used to wrap indices.
+     * @param rows The number of rows of the board.
+     * @param columns The number of columns of the board.
+     * @param windowLength The number of cells per window.
+     * @return The line table, or {@code null} if a line of the board does not fit into a {@code long}.
+     */
+    static LineTable forBoard(Board board, int rows, int columns, int windowLength) {
+        if (!fitsLines(board, rows, columns)) {
+            return null;
+        }
+        String key = board.getClass().getName() + ':' + rows + 'x' + columns + ':' + windowLength;
+        return CACHE.computeIfAbsent(key, ignored -> new LineTable(board, rows, columns, windowLength));
+    }
+
+    /**
+     * Returns the number of cells per window.
+     *
+     * @return The window length.
+     */
+    public int getWindowLength() {
+        return windowLength;
+    }
+
+    /**
+     * Returns the number of cells of the board.
+     *
+     * @return The cell count.
+     */
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    /**
+     * Returns the number of lines of the board.
+     *
+     * @return The line count.
+     */
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * Returns the number of masks that describe a board with the given number of players.
+     *
+     * @param players The number of players.
+     * @return The number of masks per board.
+     */
+    public int getMaskCount(final int players) {
+        return (players + 1) * lineCount;
+    }
+
+    /**
+     * Returns the line through a cell along an axis.
+     *
+     * @param cell The row-major index of the cell.
+     * @param axis The axis, between 0 and 3.
+     * @return The line.
+     */
+    public int getLine(final int cell, final int axis) {
+        return cellLines[cell * AXES.length + axis];
+    }
+
+    /**
+     * Returns the axis a line runs along.
+     *
+     * @param line The line.
+     * @return The axis, between 0 and 3.
+     */
+    public int getAxis(final int line) {
+        return lineAxes[line];
+    }
+
+    /**
+     * Returns the cell at a position of a line.
+     *
+     * @param line The line.
+     * @param position The position within the line.
+     * @return The row-major index of the cell.
+     */
+    public int getCell(final int line, final int position) {
+        return lineCells[lineCellOffsets[line] + position];
+    }
+
+    /**
+     * Returns the start positions of the windows through a cell within its line along an axis.
+     *
+     * @param cell The row-major index of the cell.
+     * @param axis The axis, between 0 and 3.
+     * @return A mask with a bit at the start position of every window covering the cell.
+     */
+    public long getCoveringStarts(final int cell, final int axis) {
+        return coveringStarts[cell * AXES.length + axis];
+    }
+
+    /**
+     * Sets the bits of a token in all lines through its cell.
+     *
+     * @param masks The masks of the boards.
+     * @param base The index of the board's first mask.
+     * @param cell The row-major index of the cell.
+     * @param player The ID of the player owning the token.
+     */
+    public void set(final long[] masks, final int base, final int cell, final int player) {
+        int playerBase = base + (player + 1) * lineCount;
+        for (int index = cell * AXES.length; index < (cell + 1) * AXES.length; index++) {
+            masks[base + cellLines[index]] |= cellBits[index];
+            masks[playerBase + cellLines[index]] |= cellBits[index];
+        }
+    }
+
+    /**
+     * Clears the bits of a token in all lines through its cell.
+     *
+     * @param masks The masks of the boards.
+     * @param base The index of the board's first mask.
+     * @param cell The row-major index of the cell.
+     * @param player The ID of the player owning the token.
+     */
+    public void unset(final long[] masks, final int base, final int cell, final int player) {
+        int playerBase = base + (player + 1) * lineCount;
+        for (int index = cell * AXES.length; index < (cell + 1) * AXES.length; index++) {
+            masks[base + cellLines[index]] &= ~cellBits[index];
+            masks[playerBase + cellLines[index]] &= ~cellBits[index];
+        }
+    }
+
+    /**
+     * Checks if a window through a cell is completely filled with tokens of a player.
+     *
+     * @param masks The masks of the boards.
+     * @param base The index of the board's first mask.
+     * @param cell The row-major index of the cell.
+     * @param player The ID of the player.
+     * @return True if a window of the player covers the cell, false otherwise.
+     */
+    public boolean hasRunThrough(final long[] masks, final int base, final int cell, final int player) {
+        int playerBase = base + (player + 1) * lineCount;
+        for (int index = cell * AXES.length; index < (cell + 1) * AXES.length; index++) {
+            int line = cellLines[index];
+            long own = masks[playerBase + line] & reachMasks[index];
+            if (Long.bitCount(own) >= windowLength && (runStarts(own, line) & coveringStarts[index]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Counts the windows through an empty cell that a token of the player would close, that is,
+     * the windows that contain tokens of exactly one other player so far.
+     *
+     * @param masks The masks of the boards.
+     * @param base The index of the board's first mask.
+     * @param players The number of players of the board.
+     * @param cell The row-major index of the empty cell.
+     * @param player The ID of the player about to place a token on the cell.
+     * @return The number of windows that could no longer be completed after the placement.
+     */
+    public int countClosedWindows(final long[] masks, final int base, final int players, final int cell,
+            final int player) {
+        int count = 0;
+        for (int index = cell * AXES.length; index < (cell + 1) * AXES.length; index++) {
+            int line = cellLines[index];
+            long reach = reachMasks[index];
+            long occupied = masks[base + line] & reach;
+            if ((occupied & ~masks[base + (player + 1) * lineCount + line]) == 0) {
+                continue;
+            }
+            long open = 0;
+            for (int other = 0; other < players; other++) {
+                long others = masks[base + (other + 1) * lineCount + line] & reach;
+                if (other != player && others != 0) {
+                    open |= runStarts(~(occupied & ~others) & reach, line);
+                }
+            }
+            long closed = open & ~runStarts(~occupied & reach, line);
+            count += Long.bitCount(closed & coveringStarts[index]);
+        }
+        return count;
+    }
+
+    /**
+     * Finds a window that contains tokens of at most one player and can therefore still be
+     * completed. The given window is checked first, so a window found before is kept for as long
+     * as it stays open. Otherwise, the lines are searched from the line of the given window on.
+     *
+     * @param masks The masks of the boards.
+     * @param base The index of the board's first mask.
+     * @param players The number of players of the board.
+     * @param window The window to check first, as {@code line * 64 + start}.
+     * @return An open window as {@code line * 64 + start}, or -1 if every window is closed.
+     */
+    public int findOpenWindow(final long[] masks, final int base, final int players, final int window) {
+        int first = window / Long.SIZE;
+        long start = 1L << window % Long.SIZE;
+        if ((windowStarts(first) & start) != 0) {
+            long occupied = masks[base + first] & windowCells(start, first);
+            for (int player = 0; player < players; player++) {
+                if ((occupied & ~masks[base + (player + 1) * lineCount + first]) == 0) {
+                    return window;
+                }
+            }
+        }
+        for (int offset = 0; offset < lineCount; offset++) {
+            int line = (first + offset) % lineCount;
+            long occupied = masks[base + line];
+            long starts = 0;
+            for (int player = 0; player < players && starts == 0; player++) {
+                long blocked = occupied & ~masks[base + (player + 1) * lineCount + line];
+                starts = runStarts(~blocked & lineMasks[line], line) & windowStarts(line);
+            }
+            if (starts != 0) {
+                return line * Long.SIZE + Long.numberOfTrailingZeros(starts);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the windows of a line that contain none of the blocked cells and at least the given
+     * number of a player's tokens.
+     *
+     * @param own The player's tokens in the line.
+     * @param blocked The cells of the line the windows must not contain.
+     * @param line The line.
+     * @param minimum The minimum number of the player's tokens per window.
+     * @return A mask with a bit at the start position of every such window.
+     */
+    public long findWindows(final long own, final long blocked, final int line, final int minimum) {
+        if (Long.bitCount(own) < minimum) {
+            return 0;
+        }
+        long starts = runStarts(~blocked & lineMasks[line], line) & windowStarts(line);
+        if (minimum <= 0) {
+            return starts;
+        }
+        long found = 0;
+        for (long rest = starts; rest != 0; rest &= rest - 1) {
+            if (Long.bitCount(own & windowCells(rest & -rest, line)) >= minimum) {
+                found |= rest & -rest;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Returns the cells of a line that belong to any of the given windows.
+     *
+     * @param starts A mask with a bit at the start position of every window.
+     * @param line The line.
+     * @return A mask with a bit at every cell covered by one of the windows.
+     */
+    public long windowCells(final long starts, final int line) {
+        return spread(starts, windowLength, line);
+    }
+
+    /**
+     * Returns the start positions of all runs of set bits of the window length within a line.
+     *
+     * @param mask The bits of the line.
+     * @param line The line.
+     * @return A mask with a bit at every position where a run starts.
+     */
+    private long runStarts(long mask, int line) {
+        int length = lineLengths[line];
+        long wrap = wrapMasks[line];
+        long runs = mask;
+        // Every step doubles the length of the runs found so far, the last one tops it up
+        int found = 1;
+        while (found * 2 <= windowLength) {
+            runs &= runs >>> found | runs << (length - found) & wrap;
+            found *= 2;
+        }
+        if (found < windowLength) {
+            runs &= runs >>> (windowLength - found) | runs << (length - windowLength + found) & wrap;
+        }
+        return runs;
+    }
+
+    /**
+     * Extends every set bit of a line to a run of the given length towards higher positions.
+     *
+     * @param mask The bits of the line.
+     * @param length The length of the runs, at most the length of the line.
+     * @param line The line.
+     * @return A mask with a bit at every position less than {@code length} above a set bit.
+     */
+    private long spread(long mask, int length, int line) {
+        long runs = mask;
+        int spread = 1;
+        while (spread * 2 <= length) {
+            runs |= shiftUp(runs, spread, line);
+            spread *= 2;
+        }
+        if (spread < length) {
+            runs |= shiftUp(runs, length - spread, line);
+        }
+        return runs;
+    }
+
+    /**
+     * Returns the positions of a line where a window may start.
+     *
+     * @param line The line.
+     * @return A mask with a bit at every start position of a window.
+     */
+    private long windowStarts(int line) {
+        if (wrapMasks[line] != 0) {
+            return lineMasks[line];
+        }
+        return lineLengths[line] < windowLength ? 0 : lowBits(lineLengths[line] - windowLength + 1);
+    }
+
+    /**
+     * Returns the cells of a line within the given distances around a position. On a cyclic line,
+     * the cells wrap around its end.
+     *
+     * @param line The line.
+     * @param position The position within the line.
+     * @param below The number of cells below the position.
+     * @param above The number of cells above the position.
+     * @return A mask with a bit at every cell from {@code position - below} to {@code position + above}.
+     */
+    private long around(int line, int position, int below, int above) {
+        int length = lineLengths[line];
+        if (wrapMasks[line] == 0) {
+            return lowBits(Math.min(position + above + 1, length)) & ~lowBits(Math.max(0, position - below));
+        }
+        if (below + above + 1 >= length) {
+            return lineMasks[line];
+        }
+        return spread(shiftDown(1L << position, below, line), below + above + 1, line);
+    }
+
+    /**
+     * Moves the bits of a line towards lower positions. Bits leaving a cyclic line enter it again
+     * at its end, bits leaving any other line are dropped.
+     *
+     * @param mask The bits of the line.
+     * @param distance The number of positions, less than 64 and less than the length of a cyclic line.
+     * @param line The line.
+     * @return The moved bits.
+     */
+    private long shiftDown(long mask, int distance, int line) {
+        return (mask >>> distance | mask << (lineLengths[line] - distance) & wrapMasks[line]) & lineMasks[line];
+    }
+
+    /**
+     * Moves the bits of a line towards higher positions. Bits leaving a cyclic line enter it again
+     * at its start, bits leaving any other line are dropped.
+     *
+     * @param mask The bits of the line.
+     * @param distance The number of positions, less than 64 and less than the length of a cyclic line.
+     * @param line The line.
+     * @return The moved bits.
+     */
+    private long shiftUp(long mask, int distance, int line) {
+        return (mask << distance | mask >>> (lineLengths[line] - distance) & wrapMasks[line]) & lineMasks[line];
+    }
+
+    /**
+     * Adds the line along an axis through a cell not assigned to a line yet.
+     *
+     * @param board A board of the requested type, used to wrap indices.
+     * @param rows The number of rows of the board.
+     * @param columns The number of columns of the board.
+     * @param axis The axis of the line.
+     * @param cell A cell of the line.
+     * @param cellPositions Receives the positions of the line's cells.
+     * @return True if the line is a cycle, false otherwise.
+     */
+    private boolean addLine(Board board, int rows, int columns, int axis, int cell, int[] cellPositions) {
+        // Walk backwards to the first cell of the line, or once around a cyclic line
+        int start = cell;
+        boolean cyclic = false;
+        while (!cyclic) {
+            int previous = step(board, rows, columns, start, axis, -1);
+            if (previous < 0) {
+                break;
+            }
+            start = previous;
+            cyclic = start == cell;
+        }
+
+        int line = lineCount++;
+        int position = 0;
+        int current = start;
+        do {
+            cellLines[current * AXES.length + axis] = line;
+            cellPositions[current * AXES.length + axis] = position;
+            lineCells[lineCellOffsets[line] + position++] = current;
+            current = step(board, rows, columns, current, axis, 1);
+        } while (current >= 0 && current != start);
+        lineAxes[line] = axis;
+        lineLengths[line] = position;
+        lineCellOffsets[line + 1] = lineCellOffsets[line] + position;
+        return cyclic;
+    }
+
+    /**
+     * Checks if every line of a board fits into a {@code long}, by walking the longest line of
+     * every axis from the first cell.
+     *
+     * @param board A board of the requested type, used to wrap indices.
+     * @param rows The number of rows of the board.
+     * @param columns The number of columns of the board.
+     * @return True if no line is longer than 64 cells, false otherwise.
+     */
+    private static boolean fitsLines(Board board, int rows, int columns) {
+        for (int axis = 0; axis < AXES.length; axis++) {
+            int[] starts = {0, columns - 1, (rows - 1) * columns};
+            for (int start : starts) {
+                int length = 0;
+                int cell = start;
+                do {
+                    length++;
+                    cell = step(board, rows, columns, cell, axis, 1);
+                } while (cell >= 0 && cell != start && length <= Long.SIZE);
+                if (length > Long.SIZE) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Moves from a cell one step along an axis.
+     *
+     * @param board A board of the requested type, used to wrap indices.
+     * @param rows The number of rows of the board.
+     * @param columns The number of columns of the board.
+     * @param cell The current cell.
+     * @param axis The axis.
+     * @param direction 1 to move forwards, -1 to move backwards.
+     * @return The next cell, or -1 if the step leaves the board.
+     */
+    private static int step(Board board, int rows, int columns, int cell, int axis, int direction) {
+        int row = board.wrapIndex(cell / columns + direction * AXES[axis][0], rows);
+        int column = board.wrapIndex(cell % columns + direction * AXES[axis][1], columns);
+        if (row < 0 || row >= rows || column < 0 || column >= columns) {
+            return -1;
+        }
+        return row * columns + column;
+    }
+
+    /**
+     * Returns a mask of the lowest bits. Shift distances are taken modulo 64 in Java, so a full
+     * mask cannot be built by shifting.
+     *
+     * @param count The number of bits, between 0 and 64.
+     * @return A mask with the lowest {@code count} bits set.
+     */
+    private static long lowBits(int count) {
+        return count == Long.SIZE ? -1L : (1L << count) - 1;
+    }
+}
@@ -4,6 +4,16 @@ package edu.kit.informatik.game.board;
  * Represents a standard game board.
  */
 public class StandardBoard extends Board {
+    @Override
+    public String getType() {
+        return "standard";
+    }
+
+    @Override
+    protected Board createEmpty() {
+        return new StandardBoard();
+    }
+
     @Override
     protected int wrapIndex(int index, int boardLength) {
         // No wrapping for standard boards
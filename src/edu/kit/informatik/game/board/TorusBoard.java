@@ -4,6 +4,16 @@ package edu.kit.informatik.game.board;
  * Represents a torus game board.
  */
 public class TorusBoard extends Board {
+    @Override
+    public String getType() {
+        return "torus";
+    }
+
+    @Override
+    protected Board createEmpty() {
+        return new TorusBoard();
+    }
+
     @Override
     protected int wrapIndex(int index, int boardLength) {
         // Wrap indices for torus boards
@@ -0,0 +1,197 @@
+package edu.kit.informatik.game.board;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precomputed table of all winning windows of a board.
+ * <p>
+ * A window is a straight line of consecutive cells (vertical, horizontal or diagonal) that is
+ * long enough to win the game. Cells are addressed by their row-major index
+ * {@code row * columns + column}. The table stores the cells of every window and, for every cell,
+ * the windows running through it, both as flat {@code int} arrays.
+ * </p>
+ *
+ * <p>
+ * Tables are immutable and shared between all boards of the same type, dimensions and window length. The arrays
+ * returned by the getters must therefore never be modified.
+ * </p>
+ */
+public final class WindowTable {
+    private static final int[][] AXES = {
+        {1, 0}, // Vertical
+        {0, 1}, // Horizontal
+        {1, 1}, // Diagonal (top-left to bottom-right)
+        {1, -1} // Diagonal (top-right to bottom-left)
+    };
+    private static final Map<String, WindowTable> CACHE = new ConcurrentHashMap<>();
+
+    private final int windowLength;
+    private final int cellCount;
+    private final int windowCount;
+    private final int[] windowCells;
+    private final int[] cellWindowOffsets;
+    private final int[] cellWindows;
+
+    /**
+     * Creates a window table from its flat arrays.
+     *
+     * @param windowLength The number of cells per window.
+     * @param cellCount The number of cells of the board.
+     * @param windowCells The cells of all windows, {@code windowLength} entries per window.
+     * @param cellWindowOffsets The offsets into {@code cellWindows} per cell.
+     * @param cellWindows The windows running through each cell.
+     */
+    private WindowTable(int windowLength, int cellCount, int[] windowCells, int[] cellWindowOffsets,
+            int[] cellWindows) {
+        this.windowLength = windowLength;
+        this.cellCount = cellCount;
+        this.windowCount = windowCells.length / windowLength;
+        this.windowCells = windowCells;
+        this.cellWindowOffsets = cellWindowOffsets;
+        this.cellWindows = cellWindows;
+    }
+
+    /**
+     * Returns the shared window table for the given board type and dimensions, building it on first use.
+     *
+     * @param board A board of the requested type, used to wrap indices.
+     * @param rows The number of rows of the board.
+     * @param columns The number of columns of the board.
+     * @param windowLength The number of cells per window.
+     * @return The window table.
+     */
+    static WindowTable forBoard(Board board, int rows, int columns, int windowLength) {
+        String key = board.getClass().getName() + ':' + rows + 'x' + columns + ':' + windowLength;
+        return CACHE.computeIfAbsent(key, ignored -> build(board, rows, columns, windowLength));
+    }
+
+    /**
+     * Builds a window table by walking every axis from every cell.
+     *
+     * @param board A board of the requested type, used to wrap indices.
+     * @param rows The number of rows of the board.
+     * @param columns The number of columns of the board.
+     * @param windowLength The number of cells per window.
+     * @return The new window table.
+     */
+    private static WindowTable build(Board board, int rows, int columns, int windowLength) {
+        int cellCount = rows * columns;
+        int[] windowCells = new int[cellCount * AXES.length * windowLength];
+        int[] cellWindowCounts = new int[cellCount];
+        int windowCount = 0;
+
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                for (int[] axis : AXES) {
+                    int start = windowCount * windowLength;
+                    if (collectWindow(board, rows, columns, row, column, axis, windowLength, windowCells, start)) {
+                        for (int i = start; i < start + windowLength; i++) {
+                            cellWindowCounts[windowCells[i]]++;
+                        }
+                        windowCount++;
+                    }
+                }
+            }
+        }
+
+        int[] cellWindowOffsets = new int[cellCount + 1];
+        for (int cell = 0; cell < cellCount; cell++) {
+            cellWindowOffsets[cell + 1] = cellWindowOffsets[cell] + cellWindowCounts[cell];
+        }
+        int[] cellWindows = new int[cellWindowOffsets[cellCount]];
+        int[] next = cellWindowOffsets.clone();
+        for (int window = 0; window < windowCount; window++) {
+            for (int i = window * windowLength; i < (window + 1) * windowLength; i++) {
+                cellWindows[next[windowCells[i]]++] = window;
+            }
+        }
+
+        int[] trimmed = new int[windowCount * windowLength];
+        System.arraycopy(windowCells, 0, trimmed, 0, trimmed.length);
+        return new WindowTable(windowLength, cellCount, trimmed, cellWindowOffsets, cellWindows);
+    }
+
+    /**
+     * Collects the cells of a single window into the target array.
+     *
+     * @param board A board of the requested type, used to wrap indices.
+     * @param rows The number of rows of the board.
+     * @param columns The number of columns of the board.
+     * @param row The starting row.
+     * @param column The starting column.
+     * @param axis The row and column increment of the window.
+     * @param windowLength The number of cells per window.
+     * @param target The array to write the cell indices to.
+     * @param offset The first index to write to.
+     * @return True if the window lies completely on the board, false otherwise.
+     */
+    private static boolean collectWindow(Board board, int rows, int columns, int row, int column, int[] axis,
+            int windowLength, int[] target, int offset) {
+        for (int step = 0; step < windowLength; step++) {
+            int cellRow = board.wrapIndex(row + step * axis[0], rows);
+            int cellColumn = board.wrapIndex(column + step * axis[1], columns);
+            if (cellRow < 0 || cellRow >= rows || cellColumn < 0 || cellColumn >= columns) {
+                return false;
+            }
+            target[offset + step] = cellRow * columns + cellColumn;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of cells per window.
+     *
+     * @return The window length.
+     */
+    public int getWindowLength() {
+        return windowLength;
+    }
+
+    /**
+     * Returns the number of cells of the board.
+     *
+     * @return The cell count.
+     */
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    /**
+     * Returns the number of windows on the board.
+     *
+     * @return The window count.
+     */
+    public int getWindowCount() {
+        return windowCount;
+    }
+
+    /**
+     * Returns the cells of all windows. The cells of window {@code w} are stored at the indices
+     * {@code w * windowLength} to {@code (w + 1) * windowLength - 1}.
+     *
+     * @return The window cells.
+     */
+    public int[] getWindowCells() {
+        return windowCells;
+    }
+
+    /**
+     * Returns the offsets into {@link #getCellWindows()} per cell. The windows through cell {@code c}
+     * are stored at the indices {@code offsets[c]} to {@code offsets[c + 1] - 1}.
+     *
+     * @return The cell window offsets.
+     */
+    public int[] getCellWindowOffsets() {
+        return cellWindowOffsets;
+    }
+
+    /**
+     * Returns the windows running through each cell, grouped by cell.
+     *
+     * @return The cell windows.
+     */
+    public int[] getCellWindows() {
+        return cellWindows;
+    }
+}
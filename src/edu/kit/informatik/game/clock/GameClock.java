@@ -0,0 +1,238 @@
+package edu.kit.informatik.game.clock;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import edu.kit.informatik.InvalidInputException;
+import edu.kit.informatik.game.Player;
+import edu.kit.informatik.game.logic.ConnectSix;
+import edu.kit.informatik.game.logic.GameState;
+
+/**
+ * Enforces a {@link TimeControl} on a Connect Six game.
+ * <p>
+ * The clock runs for the current player only. Every turn schedules a single timeout on a shared
+ * {@link TimingWheel}, which is cancelled when the player moves in time. A player who runs out of
+ * time forfeits; in a two-player game the opponent wins, with more players the flagged seat is
+ * skipped from then on. Placements and timeouts are serialized on the game's monitor, so other
+ * threads that access the game should synchronize on it as well.
+ * </p>
+ */
+public class GameClock {
+    private final ConnectSix game;
+    private final TimeControl control;
+    private final TimingWheel wheel;
+    private final long[] mainNanos;
+    private final int[] periods;
+
+    private boolean running;
+    private Player turnPlayer;
+    private long turnStart;
+    private long turnCounter;
+    private TimingWheel.Timeout timeout;
+
+    /**
+     * Creates a stopped clock for a game. Every player starts with the full time of the time control.
+     *
+     * @param game The game.
+     * @param control The time control.
+     * @param wheel The timing wheel to schedule timeouts on.
+     */
+    public GameClock(final ConnectSix game, final TimeControl control, final TimingWheel wheel) {
+        this.game = Objects.requireNonNull(game);
+        this.control = Objects.requireNonNull(control);
+        this.wheel = Objects.requireNonNull(wheel);
+        this.mainNanos = new long[Player.getMaxAmountOfPlayers()];
+        this.periods = new int[Player.getMaxAmountOfPlayers()];
+        for (int player = 0; player < mainNanos.length; player++) {
+            mainNanos[player] = control.getMainNanos();
+            periods[player] = control.getPeriods();
+        }
+    }
+
+    /**
+     * Starts the clock of the current player.
+     */
+    public void start() {
+        synchronized (game) {
+            if (!running && game.getCurrentGameState() == GameState.RUNNING) {
+                running = true;
+                startTurn(System.nanoTime());
+            }
+        }
+    }
+
+    /**
+     * Stops the clock. The time used in the current turn is charged to the current player.
+     */
+    public void stop() {
+        synchronized (game) {
+            if (running) {
+                running = false;
+                timeout.cancel();
+                charge(turnPlayer, System.nanoTime() - turnStart);
+            }
+        }
+    }
+
+    /**
+     * Places two tokens for the current player and passes the clock on to the next player.
+     *
+     * @param firstRow The row index of the first token.
+     * @param firstColumn The column index of the first token.
+     * @param secondRow The row index of the second token.
+     * @param secondColumn The column index of the second token.
+     * @return The result of {@link ConnectSix#placeToken(int, int, int, int)}.
+     * @throws InvalidInputException If the game is over, the time of the current player is up,
+     *                               or the placement violates the game rules.
+     */
+    public String place(final int firstRow, final int firstColumn, final int secondRow, final int secondColumn)
+            throws InvalidInputException {
+        synchronized (game) {
+            long now = checkTime();
+            return passTurn(game.placeToken(firstRow, firstColumn, secondRow, secondColumn), now);
+        }
+    }
+
+    /**
+     * Places the tokens of a turn for the current player and passes the clock on to the next player.
+     *
+     * @param rows The row indices of the tokens.
+     * @param columns The column indices of the tokens.
+     * @return The result of {@link ConnectSix#placeTokens(int[], int[])}.
+     * @throws InvalidInputException If the game is over, the time of the current player is up,
+     *                               or the placement violates the game rules.
+     */
+    public String place(final int[] rows, final int[] columns) throws InvalidInputException {
+        synchronized (game) {
+            long now = checkTime();
+            return passTurn(game.placeTokens(rows, columns), now);
+        }
+    }
+
+    /**
+     * Returns the time a player has left, including byoyomi periods.
+     *
+     * @param player The player.
+     * @return The remaining time in milliseconds.
+     */
+    public long getRemainingMillis(final Player player) {
+        synchronized (game) {
+            long remaining = budget(player);
+            if (running && player == turnPlayer) {
+                remaining -= System.nanoTime() - turnStart;
+            }
+            return TimeUnit.NANOSECONDS.toMillis(Math.max(0, remaining));
+        }
+    }
+
+    /**
+     * Checks that the current player may still move.
+     *
+     * @return The current time in nanoseconds.
+     * @throws InvalidInputException If the game is over or the time of the current player is up.
+     */
+    private long checkTime() throws InvalidInputException {
+        if (game.getCurrentGameState() != GameState.RUNNING) {
+            throw new InvalidInputException("game is over.");
+        }
+        long now = System.nanoTime();
+        if (running && now - turnStart >= budget(turnPlayer)) {
+            flag(turnPlayer, now);
+            throw new InvalidInputException("time is up.");
+        }
+        return now;
+    }
+
+    /**
+     * Charges the turn that just ended and starts the clock of the next player.
+     *
+     * @param result The result of the placement.
+     * @param now The time the placement was requested, in nanoseconds.
+     * @return The result of the placement.
+     */
+    private String passTurn(String result, long now) {
+        if (running) {
+            timeout.cancel();
+            charge(turnPlayer, now - turnStart);
+            if (game.getCurrentGameState() == GameState.RUNNING) {
+                startTurn(now);
+            } else {
+                running = false;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Starts the turn of the current player and schedules its timeout.
+     *
+     * @param now The current time in nanoseconds.
+     */
+    private void startTurn(long now) {
+        turnPlayer = game.getCurrentPlayer();
+        turnStart = now;
+        long turn = ++turnCounter;
+        timeout = wheel.schedule(() -> expire(turn), budget(turnPlayer));
+    }
+
+    /**
+     * Flags the player of a turn whose timeout expired, unless the turn ended in the meantime.
+     *
+     * @param turn The number of the turn.
+     */
+    private void expire(long turn) {
+        synchronized (game) {
+            if (running && turn == turnCounter && game.getCurrentGameState() == GameState.RUNNING) {
+                flag(turnPlayer, System.nanoTime());
+            }
+        }
+    }
+
+    /**
+     * Makes a player who ran out of time forfeit and passes the clock on if the game continues.
+     *
+     * @param player The flagged player.
+     * @param now The current time in nanoseconds.
+     */
+    private void flag(Player player, long now) {
+        timeout.cancel();
+        mainNanos[player.getPlayerID()] = 0;
+        periods[player.getPlayerID()] = 0;
+        game.forfeit(player);
+        if (game.getCurrentGameState() == GameState.RUNNING) {
+            startTurn(now);
+        } else {
+            running = false;
+        }
+    }
+
+    /**
+     * Charges the time of a turn to a player.
+     *
+     * @param player The player.
+     * @param elapsed The duration of the turn in nanoseconds.
+     */
+    private void charge(Player player, long elapsed) {
+        int id = player.getPlayerID();
+        if (elapsed <= mainNanos[id]) {
+            mainNanos[id] += control.getIncrementNanos() - elapsed;
+        } else {
+            long overtime = elapsed - mainNanos[id];
+            mainNanos[id] = control.getIncrementNanos();
+            if (control.getPeriods() > 0) {
+                periods[id] = (int) Math.max(0, periods[id] - overtime / control.getPeriodNanos());
+            }
+        }
+    }
+
+    /**
+     * Returns the time a player may use in the next turn.
+     *
+     * @param player The player.
+     * @return The time budget in nanoseconds.
+     */
+    private long budget(Player player) {
+        return mainNanos[player.getPlayerID()] + periods[player.getPlayerID()] * control.getPeriodNanos();
+    }
+}
@@ -0,0 +1,104 @@
+package edu.kit.informatik.game.clock;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The time control of a game.
+ * <p>
+ * With a Fischer time control, every player has a main time that decreases while the player is to
+ * move, and a fixed increment is added after every move. With byoyomi, a player who used up the main
+ * time has a number of periods left; a move within a period keeps the period, while a period that
+ * runs out is lost. A player who runs out of time forfeits the game.
+ * </p>
+ */
+public final class TimeControl {
+    private final long mainNanos;
+    private final long incrementNanos;
+    private final int periods;
+    private final long periodNanos;
+
+    /**
+     * Creates a time control.
+     *
+     * @param mainNanos The main time per player in nanoseconds.
+     * @param incrementNanos The Fischer increment in nanoseconds.
+     * @param periods The number of byoyomi periods.
+     * @param periodNanos The duration of a byoyomi period in nanoseconds.
+     */
+    private TimeControl(long mainNanos, long incrementNanos, int periods, long periodNanos) {
+        this.mainNanos = mainNanos;
+        this.incrementNanos = incrementNanos;
+        this.periods = periods;
+        this.periodNanos = periodNanos;
+    }
+
+    /**
+     * Creates a Fischer time control.
+     *
+     * @param mainMillis The main time per player in milliseconds.
+     * @param incrementMillis The time added after every move in milliseconds.
+     * @return The time control.
+     * @throws IllegalArgumentException If a time is negative or the main time is zero.
+     */
+    public static TimeControl fischer(final long mainMillis, final long incrementMillis) {
+        if (mainMillis <= 0 || incrementMillis < 0) {
+            throw new IllegalArgumentException("Invalid Fischer time control: " + mainMillis + "+" + incrementMillis);
+        }
+        return new TimeControl(TimeUnit.MILLISECONDS.toNanos(mainMillis), TimeUnit.MILLISECONDS.toNanos(incrementMillis),
+                0, 0);
+    }
+
+    /**
+     * Creates a byoyomi time control.
+     *
+     * @param mainMillis The main time per player in milliseconds.
+     * @param periods The number of periods per player.
+     * @param periodMillis The duration of a period in milliseconds.
+     * @return The time control.
+     * @throws IllegalArgumentException If a time or the number of periods is invalid.
+     */
+    public static TimeControl byoyomi(final long mainMillis, final int periods, final long periodMillis) {
+        if (mainMillis < 0 || periods <= 0 || periodMillis <= 0) {
+            throw new IllegalArgumentException("Invalid byoyomi time control: " + mainMillis + ", " + periods
+                    + "x" + periodMillis);
+        }
+        return new TimeControl(TimeUnit.MILLISECONDS.toNanos(mainMillis), 0, periods,
+                TimeUnit.MILLISECONDS.toNanos(periodMillis));
+    }
+
+    /**
+     * Returns the main time per player.
+     *
+     * @return The main time in nanoseconds.
+     */
+    long getMainNanos() {
+        return mainNanos;
+    }
+
+    /**
+     * Returns the time added after every move.
+     *
+     * @return The increment in nanoseconds.
+     */
+    long getIncrementNanos() {
+        return incrementNanos;
+    }
+
+    /**
+     * Returns the number of byoyomi periods per player.
+     *
+     * @return The number of periods, 0 for a Fischer time control.
+     */
+    int getPeriods() {
+        return periods;
+    }
+
+    /**
+     * Returns the duration of a byoyomi period.
+     *
+     * @return The period duration in nanoseconds.
+     */
+    long getPeriodNanos() {
+        return periodNanos;
+    }
+}
@@ -0,0 +1,204 @@
+package edu.kit.informatik.game.clock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed timing wheel that runs timeouts of many games on a single thread.
+ * <p>
+ * Time is divided into ticks, and the wheel is an array of slots, one per tick modulo the wheel size.
+ * A timeout is linked into the slot of its deadline tick; timeouts more than one rotation ahead share
+ * the slot and are skipped until their tick is reached. Scheduling and cancelling only link or unlink
+ * a single list node and take constant time, independent of the number of pending timeouts. Tasks run
+ * on the wheel's worker thread and should return quickly.
+ * </p>
+ */
+public final class TimingWheel {
+    private final long tickNanos;
+    private final Timeout[] slots;
+    private final int mask;
+    private final long startNanos;
+    private final List<Timeout> expired = new ArrayList<>();
+    private long processedTick;
+    private int pendingCount;
+    private volatile Thread worker;
+
+    /**
+     * Creates a stopped timing wheel.
+     *
+     * @param tickMillis The duration of a tick in milliseconds, the resolution of the wheel.
+     * @param wheelSize The number of slots, a power of two.
+     * @throws IllegalArgumentException If the tick duration is not positive or the size is not a power of two.
+     */
+    public TimingWheel(final long tickMillis, final int wheelSize) {
+        if (tickMillis <= 0 || wheelSize <= 0 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Invalid timing wheel: " + tickMillis + " ms, " + wheelSize + " slots");
+        }
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.slots = new Timeout[wheelSize];
+        this.mask = wheelSize - 1;
+        this.startNanos = System.nanoTime();
+        for (int i = 0; i < wheelSize; i++) {
+            slots[i] = new Timeout(null, -1);
+            slots[i].previous = slots[i];
+            slots[i].next = slots[i];
+        }
+    }
+
+    /**
+     * Starts the worker thread of the wheel. Timeouts scheduled before are run once it is started.
+     */
+    public synchronized void start() {
+        if (worker == null) {
+            Thread thread = new Thread(this::run, "timing-wheel");
+            thread.setDaemon(true);
+            worker = thread;
+            thread.start();
+        }
+    }
+
+    /**
+     * Stops the worker thread. Pending timeouts stay scheduled, but are not run unless the wheel is
+     * started again.
+     *
+     * @throws InterruptedException If interrupted while waiting for the worker to finish.
+     */
+    public void stop() throws InterruptedException {
+        Thread thread;
+        synchronized (this) {
+            thread = worker;
+            worker = null;
+        }
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            thread.join();
+        }
+    }
+
+    /**
+     * Schedules a task to run once after a delay.
+     *
+     * @param task The task.
+     * @param delayNanos The delay in nanoseconds.
+     * @return The timeout, which can be used to cancel the task.
+     */
+    public Timeout schedule(final Runnable task, final long delayNanos) {
+        long deadline = System.nanoTime() + Math.max(0, delayNanos) - startNanos;
+        // Round up, so that tasks never run early
+        long tick = (deadline + tickNanos - 1) / tickNanos;
+        Timeout timeout = new Timeout(Objects.requireNonNull(task), tick);
+        synchronized (this) {
+            timeout.tick = Math.max(tick, processedTick + 1);
+            Timeout head = slots[(int) (timeout.tick & mask)];
+            timeout.previous = head.previous;
+            timeout.next = head;
+            head.previous.next = timeout;
+            head.previous = timeout;
+            pendingCount++;
+        }
+        return timeout;
+    }
+
+    /**
+     * Returns the number of scheduled timeouts that have neither run nor been cancelled.
+     *
+     * @return The number of pending timeouts.
+     */
+    public synchronized int getPendingCount() {
+        return pendingCount;
+    }
+
+    /**
+     * Processes one tick after another as their time arrives.
+     */
+    private void run() {
+        while (worker == Thread.currentThread()) {
+            long tick = processedTick + 1;
+            long wait = startNanos + tick * tickNanos - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(this, wait);
+                continue;
+            }
+
+            collectExpired(tick);
+            for (Timeout timeout : expired) {
+                try {
+                    timeout.task.run();
+                } catch (RuntimeException e) {
+                    Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+                }
+            }
+            expired.clear();
+        }
+    }
+
+    /**
+     * Unlinks the timeouts of a tick from its slot and marks the tick as processed.
+     *
+     * @param tick The tick.
+     */
+    private synchronized void collectExpired(long tick) {
+        Timeout head = slots[(int) (tick & mask)];
+        Timeout timeout = head.next;
+        while (timeout != head) {
+            Timeout next = timeout.next;
+            if (timeout.tick <= tick) {
+                timeout.unlink();
+                pendingCount--;
+                expired.add(timeout);
+            }
+            timeout = next;
+        }
+        processedTick = tick;
+    }
+
+    /**
+     * A scheduled task, linked into the slot of its deadline tick until it runs or is cancelled.
+     */
+    public final class Timeout {
+        private final Runnable task;
+        private long tick;
+        private Timeout previous;
+        private Timeout next;
+
+        /**
+         * Creates an unlinked timeout.
+         *
+         * @param task The task to run.
+         * @param tick The deadline tick.
+         */
+        private Timeout(Runnable task, long tick) {
+            this.task = task;
+            this.tick = tick;
+        }
+
+        /**
+         * Cancels the timeout.
+         *
+         * @return True if the task was cancelled, false if it already ran or was cancelled before.
+         */
+        public boolean cancel() {
+            synchronized (TimingWheel.this) {
+                if (next == null) {
+                    return false;
+                }
+                unlink();
+                pendingCount--;
+                return true;
+            }
+        }
+
+        /**
+         * Removes the timeout from its slot.
+         */
+        private void unlink() {
+            previous.next = next;
+            next.previous = previous;
+            previous = null;
+            next = null;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package edu.kit.informatik.game.data;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import edu.kit.informatik.game.Player;
+import edu.kit.informatik.game.logic.GameRules;
+
+/**
+ * Command line tool for aggregate queries over files of recorded games.
+ * <p>
+ * Every file holds {@link GameRecord}s, one per line, and may be compressed with gzip if its name
+ * ends with {@code .gz}. Files are processed one after another, and the lines of each file in
+ * parallel: plain files are split at line boundaries, compressed files in batches of lines. Every
+ * thread collects into its own {@link GameStatistics}, which are merged at the end.
+ * </p>
+ * 
+ * <p>
+ * Usage: {@code java edu.kit.informatik.game.data.GameAnalytics <file>...}
+ * </p>
+ */
+public final class GameAnalytics {
+    private static final String[] BOARD_TYPES = {"standard", "torus"};
+    private static final int HISTOGRAM_BUCKET = 20;
+    private static final int HOTTEST_CELLS = 5;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private GameAnalytics() {
+        throw new AssertionError("Utility class constructor.");
+    }
+
+    /**
+     * Prints a report of all games in the given files.
+     *
+     * @param args The paths of the files.
+     * @throws IOException If a file cannot be read.
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("Error, usage: GameAnalytics <file>...");
+            return;
+        }
+        List<Path> files = new ArrayList<>();
+        for (String arg : args) {
+            files.add(Paths.get(arg));
+        }
+        System.out.print(report(analyze(files)));
+    }
+
+    /**
+     * Collects the statistics of all games in the given files.
+     *
+     * @param files The files of game records.
+     * @return The merged statistics.
+     * @throws IOException If a file cannot be read.
+     */
+    public static GameStatistics analyze(final List<Path> files) throws IOException {
+        GameStatistics statistics = new GameStatistics();
+        for (Path file : files) {
+            try (Stream<String> lines = lines(file)) {
+                statistics.merge(lines.parallel().collect(GameStatistics::new, GameStatistics::add,
+                        GameStatistics::merge));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        return statistics;
+    }
+
+    /**
+     * Formats a report of the statistics: results and lengths per board type and player amount,
+     * a histogram of game lengths and the most played opening cells.
+     *
+     * @param statistics The statistics.
+     * @return The report.
+     */
+    public static String report(final GameStatistics statistics) {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("games: %d, skipped: %d%n", statistics.getGames(null, 0),
+                statistics.getSkippedGames()));
+
+        report.append(String.format("%n%-9s %7s %9s %8s %6s", "type", "players", "games", "length", "draws"));
+        for (int id = 0; id < maxPlayerAmount(statistics, null); id++) {
+            report.append(String.format(" %6s", Player.getPlayerByID(id)));
+        }
+        report.append(System.lineSeparator());
+        for (String type : BOARD_TYPES) {
+            for (int players = 0; players <= Player.getMaxAmountOfPlayers(); players++) {
+                if (players == 1 || statistics.getGames(type, players) == 0) {
+                    continue;
+                }
+                report.append(String.format("%-9s %7s %9d %8.1f %6.3f", type, players == 0 ? "all" : players,
+                        statistics.getGames(type, players), statistics.getAverageLength(type, players),
+                        statistics.getDrawRate(type, players)));
+                int seats = players == 0 ? maxPlayerAmount(statistics, type) : players;
+                for (int id = 0; id < seats; id++) {
+                    report.append(String.format(" %6.3f", statistics.getWinRate(type, players,
+                            Player.getPlayerByID(id))));
+                }
+                report.append(System.lineSeparator());
+            }
+        }
+
+        report.append(String.format("%nlength %9s%n", "games"));
+        long[] histogram = statistics.getLengthHistogram(null, 0);
+        int end = histogram.length;
+        while (end > 0 && histogram[end - 1] == 0) {
+            end--;
+        }
+        for (int start = 0; start < end; start += HISTOGRAM_BUCKET) {
+            long games = 0;
+            for (int length = start; length < Math.min(histogram.length, start + HISTOGRAM_BUCKET); length++) {
+                games += histogram[length];
+            }
+            report.append(String.format("%3d-%-3d%9d%n", start, start + HISTOGRAM_BUCKET - 1, games));
+        }
+
+        for (String type : BOARD_TYPES) {
+            for (GameRules rules : statistics.getRules(type)) {
+                appendHottestCells(report, statistics, type, rules);
+            }
+        }
+        return report.toString();
+    }
+
+    /**
+     * Returns the largest player amount of all games of a board type.
+     *
+     * @param statistics The statistics.
+     * @param type The board type, or {@code null} for all board types.
+     * @return The largest player amount, or 0 if there are no games.
+     */
+    private static int maxPlayerAmount(GameStatistics statistics, String type) {
+        for (int players = Player.getMaxAmountOfPlayers(); players > 1; players--) {
+            if (statistics.getGames(type, players) > 0) {
+                return players;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Appends the most played opening cells of a board type and rules to a report.
+     *
+     * @param report The report.
+     * @param statistics The statistics.
+     * @param type The board type.
+     * @param rules The rules.
+     */
+    private static void appendHottestCells(StringBuilder report, GameStatistics statistics, String type,
+            GameRules rules) {
+        long[] heatmap = statistics.getOpeningHeatmap(type, rules);
+        int columns = rules.getColumns();
+        StringBuilder cells = new StringBuilder();
+        for (int i = 0; i < HOTTEST_CELLS; i++) {
+            int hottest = 0;
+            for (int cell = 1; cell < heatmap.length; cell++) {
+                if (heatmap[cell] > heatmap[hottest]) {
+                    hottest = cell;
+                }
+            }
+            if (heatmap[hottest] == 0) {
+                break;
+            }
+            cells.append(String.format(" %d;%d (%d)", hottest / columns, hottest % columns, heatmap[hottest]));
+            heatmap[hottest] = 0;
+        }
+        if (cells.length() > 0) {
+            report.append(String.format("%nopenings %s %s:%s%n", type, rules, cells));
+        }
+    }
+
+    /**
+     * Opens the lines of a file, decompressing it if its name ends with {@code .gz}.
+     *
+     * @param file The file.
+     * @return The lines of the file.
+     * @throws IOException If the file cannot be opened.
+     */
+    private static Stream<String> lines(Path file) throws IOException {
+        if (!file.getFileName().toString().endsWith(".gz")) {
+            return Files.lines(file);
+        }
+        BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file), 1 << 16), StandardCharsets.UTF_8), 1 << 16);
+        return reader.lines().onClose(() -> {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
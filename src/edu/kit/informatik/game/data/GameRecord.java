@@ -0,0 +1,391 @@
+package edu.kit.informatik.game.data;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.regex.Pattern;
+
+import edu.kit.informatik.InvalidInputException;
+import edu.kit.informatik.game.Player;
+import edu.kit.informatik.game.logic.ConnectSix;
+import edu.kit.informatik.game.logic.GameInitializer;
+import edu.kit.informatik.game.logic.GameRules;
+import edu.kit.informatik.game.logic.GameState;
+
+/**
+ * Transcript of a recorded or self-played Connect Six game.
+ * <p>
+ * A record consists of the game configuration and the cells of all placed tokens in placement order.
+ * As text, a record is a single line of the board type, board size, player amount and the moves in
+ * the format of the place command, separated by whitespaces:
+ * </p>
+ * <pre>
+ * standard 18 2 9;9;9;10 8;8;8;9
+ * </pre>
+ * <p>
+ * Games of other {@link GameRules} carry the rules in their text form instead of the board size, and
+ * each move lists as many coordinate pairs as the rules place in that turn:
+ * </p>
+ * <pre>
+ * standard 15x15,k5,p1,q1 2 7;7 7;8
+ * </pre>
+ * <p>
+ * A player who forfeited, e.g. after running out of time, is listed by name before the first move
+ * played after the forfeit, or at the end if the game ended with it:
+ * </p>
+ * <pre>
+ * standard 18 3 9;9;9;10 8;8;8;9 P1 7;7;7;8 P3
+ * </pre>
+ */
+public final class GameRecord {
+    private static final Pattern FIELD_SEPARATOR = Pattern.compile("\\s+");
+    private static final int NO_FORFEIT = -1;
+
+    private final String boardType;
+    private final GameRules rules;
+    private final int playerAmount;
+    private final int[] cells;
+    private final int moveCount;
+    private final int[] forfeitMoves;
+
+    /**
+     * Creates a record of a game played by the default rules.
+     *
+     * @param boardType The game mode, "standard" or "torus".
+     * @param boardSize The size of the board.
+     * @param playerAmount The number of players.
+     * @param cells The row-major indices of all placed tokens, two per move.
+     * @throws IllegalArgumentException If the board size is not positive or the last move is incomplete.
+     */
+    public GameRecord(final String boardType, final int boardSize, final int playerAmount, final int[] cells) {
+        this(boardType, GameRules.defaults(boardSize), playerAmount, cells);
+    }
+
+    /**
+     * Creates a game record.
+     *
+     * @param boardType The game mode, "standard" or "torus".
+     * @param rules The rules of the game.
+     * @param playerAmount The number of players.
+     * @param cells The row-major indices of all placed tokens in placement order.
+     * @throws IllegalArgumentException If the last move is incomplete.
+     */
+    public GameRecord(final String boardType, final GameRules rules, final int playerAmount, final int[] cells) {
+        this(boardType, rules, playerAmount, cells, new int[0]);
+    }
+
+    /**
+     * Creates a record of a game in which players forfeited.
+     *
+     * @param boardType The game mode, "standard" or "torus".
+     * @param rules The rules of the game.
+     * @param playerAmount The number of players.
+     * @param cells The row-major indices of all placed tokens in placement order.
+     * @param forfeitMoves For every player ID, the index of the move before which the player
+     *                     forfeited, or -1 if the player did not forfeit. Missing IDs did not forfeit.
+     * @throws IllegalArgumentException If the last move is incomplete or a forfeit lies outside the game.
+     */
+    public GameRecord(final String boardType, final GameRules rules, final int playerAmount, final int[] cells,
+            final int[] forfeitMoves) {
+        int moves = 0;
+        for (int placed = 0; placed < cells.length; moves++) {
+            int stones = rules.getStonesForTurn(moves, placed);
+            if (stones <= 0 || placed + stones > cells.length) {
+                throw new IllegalArgumentException("Incomplete move in game record");
+            }
+            placed += stones;
+        }
+        this.boardType = Objects.requireNonNull(boardType);
+        this.rules = rules;
+        this.playerAmount = playerAmount;
+        this.cells = cells.clone();
+        this.moveCount = moves;
+        this.forfeitMoves = new int[Player.getMaxAmountOfPlayers()];
+        Arrays.fill(this.forfeitMoves, NO_FORFEIT);
+        for (int id = 0; id < forfeitMoves.length; id++) {
+            if (forfeitMoves[id] != NO_FORFEIT
+                    && (id >= playerAmount || forfeitMoves[id] < 0 || forfeitMoves[id] > moves)) {
+                throw new IllegalArgumentException("Invalid forfeit in game record");
+            }
+            this.forfeitMoves[id] = forfeitMoves[id];
+        }
+    }
+
+    /**
+     * Creates a record of the moves played so far in a game.
+     *
+     * @param game The game.
+     * @return The game record.
+     */
+    public static GameRecord of(final ConnectSix game) {
+        int[] cells = new int[game.getPlacedCount()];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = game.getPlacedCell(i);
+        }
+        int[] forfeitMoves = new int[Player.getMaxAmountOfPlayers()];
+        for (Player player : Player.values()) {
+            forfeitMoves[player.getPlayerID()] = game.getForfeitTurn(player);
+        }
+        return new GameRecord(game.getBoardType(), game.getRules(), game.getPlayerAmount(), cells, forfeitMoves);
+    }
+
+    /**
+     * Parses a game record from its text form.
+     *
+     * @param line The record as a single line.
+     * @return The game record.
+     * @throws InvalidInputException If the line is not a valid game record.
+     */
+    public static GameRecord parse(final String line) throws InvalidInputException {
+        String[] fields = FIELD_SEPARATOR.split(line.trim());
+        if (fields.length < 3) {
+            throw new InvalidInputException("invalid game record.");
+        }
+        GameRules rules = GameRules.parse(fields[1]);
+        try {
+            int playerAmount = Integer.parseInt(fields[2]);
+            int[] cells = new int[(int) Math.min(rules.getCellCount(),
+                    (long) (fields.length - 3) * rules.getMaxStonesPerTurn())];
+            int[] forfeitMoves = new int[Player.getMaxAmountOfPlayers()];
+            Arrays.fill(forfeitMoves, NO_FORFEIT);
+            int placed = 0;
+            int move = 0;
+            for (int field = 3; field < fields.length; field++) {
+                Player forfeiting = player(fields[field]);
+                if (forfeiting != null) {
+                    if (forfeiting.getPlayerID() >= playerAmount
+                            || forfeitMoves[forfeiting.getPlayerID()] != NO_FORFEIT) {
+                        throw new InvalidInputException("invalid forfeit in game record: " + fields[field]);
+                    }
+                    forfeitMoves[forfeiting.getPlayerID()] = move;
+                    continue;
+                }
+                String[] coordinates = fields[field].split(";");
+                int stones = rules.getStonesForTurn(move++, placed);
+                if (coordinates.length != 2 * stones) {
+                    throw new InvalidInputException("invalid move in game record: " + fields[field]);
+                }
+                for (int stone = 0; stone < stones; stone++) {
+                    cells[placed++] = cell(coordinates[2 * stone], coordinates[2 * stone + 1], rules);
+                }
+            }
+            return new GameRecord(fields[0], rules, playerAmount,
+                    placed == cells.length ? cells : Arrays.copyOf(cells, placed), forfeitMoves);
+        } catch (NumberFormatException e) {
+            throw new InvalidInputException("invalid game record.");
+        }
+    }
+
+    /**
+     * Replays the record in a new game.
+     *
+     * @return The game after the last move of the record.
+     * @throws InvalidInputException If the configuration is invalid or a move breaks the game rules.
+     */
+    public ConnectSix replay() throws InvalidInputException {
+        ConnectSix game = GameInitializer.initializeGame(boardType, rules, playerAmount);
+        for (int move = 0; move < moveCount; move++) {
+            playMove(game, move);
+        }
+        playForfeits(game, moveCount);
+        return game;
+    }
+
+    /**
+     * Plays a single move of the record in a game, after the forfeits that preceded it.
+     *
+     * @param game The game, positioned after the previous move of the record.
+     * @param move The index of the move.
+     * @return The result of the placement.
+     * @throws InvalidInputException If the game is over or the move breaks the game rules.
+     */
+    public String playMove(final ConnectSix game, final int move) throws InvalidInputException {
+        playForfeits(game, move);
+        if (game.getCurrentGameState() != GameState.RUNNING) {
+            throw new InvalidInputException("game is over.");
+        }
+        int start = getMoveStart(move);
+        int stones = getMoveStart(move + 1) - start;
+        int columns = rules.getColumns();
+        int[] rows = new int[stones];
+        int[] tokenColumns = new int[stones];
+        for (int stone = 0; stone < stones; stone++) {
+            rows[stone] = cells[start + stone] / columns;
+            tokenColumns[stone] = cells[start + stone] % columns;
+        }
+        return game.placeTokens(rows, tokenColumns);
+    }
+
+    /**
+     * Makes the players forfeit who forfeited before a move of the record. Players who already
+     * forfeited in the game are left out, so the forfeits before the moves played with
+     * {@link #playMove(ConnectSix, int)} may be played again. After the last move, the forfeits that
+     * ended the game are played with the move count as index.
+     *
+     * @param game The game, positioned after the previous move of the record.
+     * @param move The index of the move, or the move count for the end of the record.
+     * @throws InvalidInputException If a player has to forfeit after the game is over.
+     */
+    public void playForfeits(final ConnectSix game, final int move) throws InvalidInputException {
+        for (Player player : Player.values()) {
+            if (forfeitMoves[player.getPlayerID()] == move && !game.hasForfeited(player)) {
+                if (game.getCurrentGameState() != GameState.RUNNING) {
+                    throw new InvalidInputException("game is over.");
+                }
+                game.forfeit(player);
+            }
+        }
+    }
+
+    /**
+     * Returns the board type.
+     *
+     * @return The game mode, "standard" or "torus".
+     */
+    public String getBoardType() {
+        return boardType;
+    }
+
+    /**
+     * Returns the board size. For boards that are not square, this is the number of columns.
+     *
+     * @return The size of the board.
+     */
+    public int getBoardSize() {
+        return rules.getColumns();
+    }
+
+    /**
+     * Returns the rules of the game.
+     *
+     * @return The game rules.
+     */
+    public GameRules getRules() {
+        return rules;
+    }
+
+    /**
+     * Returns the number of players.
+     *
+     * @return The player amount.
+     */
+    public int getPlayerAmount() {
+        return playerAmount;
+    }
+
+    /**
+     * Returns the number of moves.
+     *
+     * @return The move count.
+     */
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * Returns the number of placed tokens.
+     *
+     * @return The token count.
+     */
+    public int getTokenCount() {
+        return cells.length;
+    }
+
+    /**
+     * Returns the move before which a player forfeited.
+     *
+     * @param player The player.
+     * @return The index of the first move after the forfeit, or -1 if the player did not forfeit.
+     */
+    public int getForfeitMove(final Player player) {
+        return forfeitMoves[player.getPlayerID()];
+    }
+
+    /**
+     * Returns the index of the first token of a move.
+     *
+     * @param move The index of the move, or the move count for the end of the record.
+     * @return The index of the move's first token.
+     */
+    public int getMoveStart(final int move) {
+        if (move == 0) {
+            return 0;
+        }
+        long start = rules.getFirstTurnStones() + (long) (move - 1) * rules.getStonesPerTurn();
+        return (int) Math.min(start, cells.length);
+    }
+
+    /**
+     * Returns the cell of a placed token.
+     *
+     * @param index The index of the token in placement order.
+     * @return The row-major index of the token's cell.
+     */
+    public int getCell(final int index) {
+        return cells[index];
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner line = new StringJoiner(" ");
+        line.add(boardType).add(rules.toString()).add(Integer.toString(playerAmount));
+        int columns = rules.getColumns();
+        for (int move = 0; move < moveCount; move++) {
+            addForfeits(line, move);
+            StringJoiner coordinates = new StringJoiner(";");
+            for (int index = getMoveStart(move); index < getMoveStart(move + 1); index++) {
+                coordinates.add(Integer.toString(cells[index] / columns)).add(Integer.toString(cells[index] % columns));
+            }
+            line.add(coordinates.toString());
+        }
+        addForfeits(line, moveCount);
+        return line.toString();
+    }
+
+    /**
+     * Adds the names of the players who forfeited before a move to the text form of a record.
+     *
+     * @param line The text form of the record.
+     * @param move The index of the move, or the move count for the end of the record.
+     */
+    private void addForfeits(StringJoiner line, int move) {
+        for (Player player : Player.values()) {
+            if (forfeitMoves[player.getPlayerID()] == move) {
+                line.add(player.name());
+            }
+        }
+    }
+
+    /**
+     * Returns the player named by a field of a record.
+     *
+     * @param field The field.
+     * @return The player, or {@code null} if the field is not a player name.
+     */
+    private static Player player(String field) {
+        for (Player player : Player.values()) {
+            if (player.name().equals(field)) {
+                return player;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Converts coordinates of a record into a cell index.
+     *
+     * @param row The row.
+     * @param column The column.
+     * @param rules The rules of the game.
+     * @return The row-major cell index.
+     * @throws InvalidInputException If the coordinates lie outside the board.
+     */
+    private static int cell(String row, String column, GameRules rules) throws InvalidInputException {
+        int rowIndex = Integer.parseInt(row);
+        int columnIndex = Integer.parseInt(column);
+        if (rowIndex < 0 || rowIndex >= rules.getRows() || columnIndex < 0 || columnIndex >= rules.getColumns()) {
+            throw new InvalidInputException("invalid row or column.");
+        }
+        return rowIndex * rules.getColumns() + columnIndex;
+    }
+}
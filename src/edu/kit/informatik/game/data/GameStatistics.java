@@ -0,0 +1,322 @@
+package edu.kit.informatik.game.data;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import edu.kit.informatik.InvalidInputException;
+import edu.kit.informatik.game.Player;
+import edu.kit.informatik.game.logic.ConnectSix;
+import edu.kit.informatik.game.logic.GameInitializer;
+import edu.kit.informatik.game.logic.GameRules;
+import edu.kit.informatik.game.logic.GameState;
+
+/**
+ * Aggregated statistics of recorded games.
+ * <p>
+ * Games are replayed to determine their results, and counted per configuration of board type,
+ * rules and player amount in primitive counters: game lengths, results per seat and the cells
+ * of the opening move. Statistics are not thread-safe, but they are built to be used as containers
+ * of a parallel {@code collect}: every thread fills its own instance, and the instances are merged
+ * at the end. Queries take a board type of {@code null} or a player amount of 0 to include all
+ * values.
+ * </p>
+ */
+public final class GameStatistics {
+    private final Map<String, Counts> counts = new HashMap<>();
+    private long skippedGames;
+
+    /**
+     * Replays a game record given as text and adds it to the statistics. Invalid records are counted
+     * as skipped.
+     *
+     * @param line The game record.
+     */
+    public void add(final String line) {
+        if (line.isBlank()) {
+            return;
+        }
+        try {
+            add(GameRecord.parse(line));
+        } catch (InvalidInputException e) {
+            skippedGames++;
+        }
+    }
+
+    /**
+     * Replays a game record and adds it to the statistics.
+     *
+     * @param record The game record.
+     * @throws InvalidInputException If the record is invalid.
+     */
+    public void add(final GameRecord record) throws InvalidInputException {
+        String key = record.getBoardType() + ' ' + record.getRules() + ' ' + record.getPlayerAmount();
+        Counts configuration = counts.get(key);
+        if (configuration == null) {
+            configuration = new Counts(record.getBoardType(), record.getRules(), record.getPlayerAmount());
+            counts.put(key, configuration);
+        }
+        configuration.add(record);
+    }
+
+    /**
+     * Adds all games of other statistics to these statistics.
+     *
+     * @param other The other statistics.
+     */
+    public void merge(final GameStatistics other) {
+        for (Map.Entry<String, Counts> entry : other.counts.entrySet()) {
+            Counts configuration = counts.get(entry.getKey());
+            if (configuration == null) {
+                counts.put(entry.getKey(), entry.getValue());
+            } else {
+                configuration.merge(entry.getValue());
+            }
+        }
+        skippedGames += other.skippedGames;
+    }
+
+    /**
+     * Returns the number of games.
+     *
+     * @param boardType The board type, or {@code null} for all types.
+     * @param playerAmount The player amount, or 0 for all amounts.
+     * @return The game count.
+     */
+    public long getGames(final String boardType, final int playerAmount) {
+        long games = 0;
+        for (Counts configuration : counts.values()) {
+            if (configuration.matches(boardType, playerAmount)) {
+                games += configuration.games;
+            }
+        }
+        return games;
+    }
+
+    /**
+     * Returns the share of games won by a seat.
+     *
+     * @param boardType The board type, or {@code null} for all types.
+     * @param playerAmount The player amount, or 0 for all amounts.
+     * @param seat The seat.
+     * @return The win rate between 0 and 1, or {@code NaN} if there are no games.
+     */
+    public double getWinRate(final String boardType, final int playerAmount, final Player seat) {
+        long wins = 0;
+        for (Counts configuration : counts.values()) {
+            if (configuration.matches(boardType, playerAmount) && seat.getPlayerID() < configuration.playerAmount) {
+                wins += configuration.wins[seat.getPlayerID()];
+            }
+        }
+        return (double) wins / getGames(boardType, playerAmount);
+    }
+
+    /**
+     * Returns the share of drawn games.
+     *
+     * @param boardType The board type, or {@code null} for all types.
+     * @param playerAmount The player amount, or 0 for all amounts.
+     * @return The draw rate between 0 and 1, or {@code NaN} if there are no games.
+     */
+    public double getDrawRate(final String boardType, final int playerAmount) {
+        long draws = 0;
+        for (Counts configuration : counts.values()) {
+            if (configuration.matches(boardType, playerAmount)) {
+                draws += configuration.draws;
+            }
+        }
+        return (double) draws / getGames(boardType, playerAmount);
+    }
+
+    /**
+     * Returns the average number of moves per game.
+     *
+     * @param boardType The board type, or {@code null} for all types.
+     * @param playerAmount The player amount, or 0 for all amounts.
+     * @return The average game length, or {@code NaN} if there are no games.
+     */
+    public double getAverageLength(final String boardType, final int playerAmount) {
+        long moves = 0;
+        for (Counts configuration : counts.values()) {
+            if (configuration.matches(boardType, playerAmount)) {
+                moves += configuration.moves;
+            }
+        }
+        return (double) moves / getGames(boardType, playerAmount);
+    }
+
+    /**
+     * Returns the histogram of game lengths.
+     *
+     * @param boardType The board type, or {@code null} for all types.
+     * @param playerAmount The player amount, or 0 for all amounts.
+     * @return The number of games per move count.
+     */
+    public long[] getLengthHistogram(final String boardType, final int playerAmount) {
+        long[] histogram = new long[0];
+        for (Counts configuration : counts.values()) {
+            if (configuration.matches(boardType, playerAmount)) {
+                histogram = add(histogram, configuration.lengths);
+            }
+        }
+        return histogram;
+    }
+
+    /**
+     * Returns the rules of all games of a board type, ordered by their text form.
+     *
+     * @param boardType The board type, or {@code null} for all types.
+     * @return The distinct rules.
+     */
+    public Set<GameRules> getRules(final String boardType) {
+        Set<GameRules> rules = new TreeSet<>(Comparator.comparing(GameRules::toString));
+        for (Counts configuration : counts.values()) {
+            if (configuration.matches(boardType, 0)) {
+                rules.add(configuration.rules);
+            }
+        }
+        return rules;
+    }
+
+    /**
+     * Returns how often each cell was played in the opening move of a game with the default rules.
+     *
+     * @param boardType The board type.
+     * @param boardSize The board size.
+     * @return The number of opening tokens per row-major cell index.
+     */
+    public long[] getOpeningHeatmap(final String boardType, final int boardSize) {
+        return getOpeningHeatmap(boardType, GameRules.defaults(boardSize));
+    }
+
+    /**
+     * Returns how often each cell was played in the opening move of a game.
+     *
+     * @param boardType The board type.
+     * @param rules The rules of the games.
+     * @return The number of opening tokens per row-major cell index.
+     */
+    public long[] getOpeningHeatmap(final String boardType, final GameRules rules) {
+        long[] heatmap = new long[rules.getCellCount()];
+        for (Counts configuration : counts.values()) {
+            if (configuration.matches(boardType, 0) && configuration.rules.equals(rules)) {
+                heatmap = add(heatmap, configuration.openings);
+            }
+        }
+        return heatmap;
+    }
+
+    /**
+     * Returns the number of skipped invalid game records.
+     *
+     * @return The skipped game count.
+     */
+    public long getSkippedGames() {
+        return skippedGames;
+    }
+
+    /**
+     * Adds two arrays element by element.
+     *
+     * @param sum The first array.
+     * @param values The second array.
+     * @return The sum, which may be the first array.
+     */
+    private static long[] add(long[] sum, long[] values) {
+        long[] result = sum.length >= values.length ? sum : Arrays.copyOf(sum, values.length);
+        for (int i = 0; i < values.length; i++) {
+            result[i] += values[i];
+        }
+        return result;
+    }
+
+    /**
+     * The counters of one game configuration.
+     */
+    private static final class Counts {
+        private final String boardType;
+        private final GameRules rules;
+        private final int playerAmount;
+        private final long[] wins;
+        private final long[] openings;
+        private final long[] lengths;
+        private final ConnectSix game;
+        private long games;
+        private long draws;
+        private long moves;
+
+        /**
+         * Creates empty counters.
+         *
+         * @param boardType The board type.
+         * @param rules The rules.
+         * @param playerAmount The player amount.
+         * @throws InvalidInputException If the configuration is invalid.
+         */
+        private Counts(String boardType, GameRules rules, int playerAmount) throws InvalidInputException {
+            this.game = GameInitializer.initializeGame(boardType, rules, playerAmount);
+            this.boardType = boardType;
+            this.rules = rules;
+            this.playerAmount = playerAmount;
+            this.wins = new long[playerAmount];
+            this.openings = new long[rules.getCellCount()];
+            this.lengths = new long[rules.getCellCount() + 1];
+        }
+
+        /**
+         * Replays a game and counts it.
+         *
+         * @param record The game record.
+         * @throws InvalidInputException If the record is invalid.
+         */
+        private void add(GameRecord record) throws InvalidInputException {
+            try {
+                for (int move = 0; move < record.getMoveCount(); move++) {
+                    record.playMove(game, move);
+                }
+                record.playForfeits(game, record.getMoveCount());
+                games++;
+                moves += record.getMoveCount();
+                lengths[record.getMoveCount()]++;
+                for (int index = 0; index < record.getMoveStart(1); index++) {
+                    openings[record.getCell(index)]++;
+                }
+                if (game.getCurrentGameState() == GameState.WON) {
+                    wins[game.getCurrentPlayer().getPlayerID()]++;
+                } else if (game.getCurrentGameState() == GameState.DRAW) {
+                    draws++;
+                }
+            } finally {
+                game.resetGame();
+            }
+        }
+
+        /**
+         * Adds the counters of the same configuration.
+         *
+         * @param other The other counters.
+         */
+        private void merge(Counts other) {
+            games += other.games;
+            draws += other.draws;
+            moves += other.moves;
+            GameStatistics.add(wins, other.wins);
+            GameStatistics.add(openings, other.openings);
+            GameStatistics.add(lengths, other.lengths);
+        }
+
+        /**
+         * Checks if the configuration matches a query.
+         *
+         * @param type The board type, or {@code null} for all types.
+         * @param players The player amount, or 0 for all amounts.
+         * @return True if the configuration matches, false otherwise.
+         */
+        private boolean matches(String type, int players) {
+            return (type == null || type.equals(boardType)) && (players == 0 || players == playerAmount);
+        }
+    }
+}
@@ -0,0 +1,394 @@
+package edu.kit.informatik.game.data;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import edu.kit.informatik.InvalidInputException;
+import edu.kit.informatik.game.Player;
+import edu.kit.informatik.game.logic.ConnectSix;
+import edu.kit.informatik.game.logic.GamePool;
+import edu.kit.informatik.game.logic.GameRules;
+import edu.kit.informatik.game.logic.GameState;
+
+/**
+ * Exports the positions of recorded games as training data for evaluation models.
+ * <p>
+ * The input is a text file of {@link GameRecord}s, one per line. Every game is replayed, and every
+ * position before a move is written in all 8 symmetries of the square board, which hold for torus
+ * boards as well. Records have a fixed width of {@value #RECORD_BYTES} bytes in little-endian byte
+ * order:
+ * </p>
+ * <pre>
+ * offset  size  content
+ *      0     1  board type, 0 = standard, 1 = torus
+ *      1     1  board size N
+ *      2     1  player amount
+ *      3     1  side to move (player ID)
+ *      4     2  first cell of the move played, row * N + column
+ *      6     2  second cell of the move played, -1 if the move placed a single token
+ *      8     1  result: ID of the winner, {@value #RESULT_DRAW} for a draw, {@value #RESULT_UNFINISHED} if unfinished
+ *      9     1  symmetry, 0 - 3 rotations by 90 degrees, 4 - 7 the same after mirroring the columns
+ *     10     2  move number
+ *     12     4  game ID, unique within the export
+ *     16   224  one bit plane per player, {@value #PLANE_WORDS} words each; bit c of a plane is cell c
+ * </pre>
+ * <p>
+ * Games of other {@link GameRules} are exported as long as their board
+ * is square and fits the bit planes and no turn places more than two tokens; the win length is not
+ * part of the records. Other games are skipped.
+ * </p>
+ * <p>
+ * Lines are processed in parallel on a dedicated pool. Every worker fills its own direct buffer and
+ * writes it to the output file in one positional write when it is full, so the records of a game
+ * stay together, but games appear in no particular order. Invalid records are skipped.
+ * </p>
+ */
+public class TrainingExporter {
+    /**
+     * Number of 64-bit words per bit plane, enough for the largest board.
+     */
+    public static final int PLANE_WORDS = 7;
+
+    /**
+     * Size of a record in bytes.
+     */
+    public static final int RECORD_BYTES = 16 + 4 * 8 * PLANE_WORDS;
+
+    /**
+     * Result of a drawn game.
+     */
+    public static final byte RESULT_DRAW = -1;
+
+    /**
+     * Result of a game that was recorded before it ended.
+     */
+    public static final byte RESULT_UNFINISHED = -2;
+
+    private static final int SYMMETRIES = 8;
+    private static final int HEADER_BYTES = 16;
+    private static final int RESULT_OFFSET = 8;
+    private static final int MAX_CELLS = PLANE_WORDS * Long.SIZE;
+    private static final int MAX_RECORDS_PER_GAME = SYMMETRIES * MAX_CELLS;
+    private static final Map<Integer, int[][]> SYMMETRY_TABLES = new ConcurrentHashMap<>();
+
+    private final int workers;
+    private final int chunkBytes;
+
+    /**
+     * Creates an exporter.
+     *
+     * @param workers The number of worker threads.
+     * @param chunkBytes The size of each worker's output buffer in bytes.
+     * @throws IllegalArgumentException If there are no workers or a buffer cannot hold a complete game.
+     */
+    public TrainingExporter(final int workers, final int chunkBytes) {
+        if (workers <= 0 || chunkBytes < MAX_RECORDS_PER_GAME * RECORD_BYTES) {
+            throw new IllegalArgumentException("Invalid exporter configuration: " + workers + ", " + chunkBytes);
+        }
+        this.workers = workers;
+        this.chunkBytes = chunkBytes;
+    }
+
+    /**
+     * Exports all games of a transcript file. An existing output file is replaced.
+     *
+     * @param transcripts The input file with one game record per line.
+     * @param output The output file.
+     * @return A summary of the export.
+     * @throws IOException If reading or writing fails.
+     * @throws InterruptedException If interrupted while waiting for the workers.
+     */
+    public ExportSummary export(final Path transcripts, final Path output) throws IOException, InterruptedException {
+        ForkJoinPool pool = new ForkJoinPool(workers);
+        Queue<Worker> started = new ConcurrentLinkedQueue<>();
+        GamePool games = new GamePool(workers);
+        AtomicLong gameIds = new AtomicLong();
+        AtomicLong position = new AtomicLong();
+
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+                Stream<String> lines = Files.lines(transcripts)) {
+            ThreadLocal<Worker> local = ThreadLocal.withInitial(() -> {
+                Worker worker = new Worker(channel, position, games);
+                started.add(worker);
+                return worker;
+            });
+            pool.submit(() -> lines.parallel().forEach(line -> local.get().export(line,
+                    gameIds.getAndIncrement()))).get();
+            for (Worker worker : started) {
+                worker.flush();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+
+        long gameCount = 0;
+        long skipped = 0;
+        for (Worker worker : started) {
+            gameCount += worker.games;
+            skipped += worker.skipped;
+        }
+        return new ExportSummary(gameCount, position.get() / RECORD_BYTES, skipped);
+    }
+
+    /**
+     * Returns the cell permutations of the 8 symmetries of a board size.
+     *
+     * @param size The size of the board.
+     * @return For each symmetry, the image of every cell.
+     */
+    private static int[][] symmetries(int size) {
+        return SYMMETRY_TABLES.computeIfAbsent(size, ignored -> {
+            int[][] table = new int[SYMMETRIES][size * size];
+            for (int row = 0; row < size; row++) {
+                for (int column = 0; column < size; column++) {
+                    int r = row;
+                    int c = column;
+                    for (int symmetry = 0; symmetry < SYMMETRIES; symmetry++) {
+                        if (symmetry == SYMMETRIES / 2) {
+                            r = row;
+                            c = size - 1 - column;
+                        }
+                        table[symmetry][row * size + column] = r * size + c;
+                        // Rotate by 90 degrees
+                        int rotated = c;
+                        c = size - 1 - r;
+                        r = rotated;
+                    }
+                }
+            }
+            return table;
+        });
+    }
+
+    /**
+     * Converts a board type into its record code.
+     *
+     * @param boardType The board type.
+     * @return 0 for a standard board, 1 for a torus board.
+     */
+    private static byte typeCode(String boardType) {
+        return (byte) ("torus".equals(boardType) ? 1 : 0);
+    }
+
+    /**
+     * The state of one worker thread.
+     */
+    private final class Worker {
+        private final FileChannel channel;
+        private final AtomicLong position;
+        private final GamePool pool;
+        private final ByteBuffer buffer;
+        private final long[][] planes = new long[SYMMETRIES][Player.getMaxAmountOfPlayers() * PLANE_WORDS];
+        private long games;
+        private long skipped;
+
+        /**
+         * Creates a worker with an empty buffer.
+         *
+         * @param channel The output file.
+         * @param position The next free position in the output file.
+         * @param pool The pool of games for replays.
+         */
+        private Worker(FileChannel channel, AtomicLong position, GamePool pool) {
+            this.channel = channel;
+            this.position = position;
+            this.pool = pool;
+            this.buffer = ByteBuffer.allocateDirect(chunkBytes).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        /**
+         * Exports all positions of a game. A game with an invalid record is skipped.
+         *
+         * @param line The game record.
+         * @param gameId The ID of the game.
+         */
+        private void export(String line, long gameId) {
+            if (line.isBlank()) {
+                return;
+            }
+            if (buffer.remaining() < MAX_RECORDS_PER_GAME * RECORD_BYTES) {
+                flush();
+            }
+            int start = buffer.position();
+            try {
+                GameRecord record = GameRecord.parse(line);
+                GameRules rules = record.getRules();
+                if (rules.getRows() != rules.getColumns() || rules.getCellCount() > MAX_CELLS
+                        || rules.getMaxStonesPerTurn() > 2 || record.getMoveCount() > MAX_CELLS) {
+                    throw new InvalidInputException("unsupported game record.");
+                }
+                ConnectSix game = pool.acquire(record.getBoardType(), rules, record.getPlayerAmount());
+                try {
+                    writeGame(record, game, (int) gameId);
+                } finally {
+                    pool.release(game);
+                }
+                games++;
+            } catch (InvalidInputException e) {
+                buffer.position(start);
+                skipped++;
+            }
+        }
+
+        /**
+         * Replays a game and writes the records of all its positions.
+         *
+         * @param record The game record.
+         * @param game An empty game of the record's configuration.
+         * @param gameId The ID of the game.
+         * @throws InvalidInputException If a move breaks the game rules.
+         */
+        private void writeGame(GameRecord record, ConnectSix game, int gameId) throws InvalidInputException {
+            int size = record.getBoardSize();
+            int[][] table = symmetries(size);
+            for (long[] symmetryPlanes : planes) {
+                Arrays.fill(symmetryPlanes, 0);
+            }
+
+            int start = buffer.position();
+            for (int move = 0; move < record.getMoveCount(); move++) {
+                record.playForfeits(game, move);
+                int player = game.getCurrentPlayer().getPlayerID();
+                int first = record.getCell(record.getMoveStart(move));
+                int second = record.getMoveStart(move + 1) - record.getMoveStart(move) == 2
+                        ? record.getCell(record.getMoveStart(move) + 1) : -1;
+                for (int symmetry = 0; symmetry < SYMMETRIES; symmetry++) {
+                    buffer.put(typeCode(record.getBoardType()))
+                            .put((byte) size)
+                            .put((byte) record.getPlayerAmount())
+                            .put((byte) player)
+                            .putShort((short) table[symmetry][first])
+                            .putShort((short) (second < 0 ? -1 : table[symmetry][second]))
+                            .put(RESULT_UNFINISHED)
+                            .put((byte) symmetry)
+                            .putShort((short) move)
+                            .putInt(gameId);
+                    for (long word : planes[symmetry]) {
+                        buffer.putLong(word);
+                    }
+                }
+
+                record.playMove(game, move);
+                for (int symmetry = 0; symmetry < SYMMETRIES; symmetry++) {
+                    setBit(planes[symmetry], player, table[symmetry][first]);
+                    if (second >= 0) {
+                        setBit(planes[symmetry], player, table[symmetry][second]);
+                    }
+                }
+            }
+            record.playForfeits(game, record.getMoveCount());
+
+            byte result = RESULT_UNFINISHED;
+            if (game.getCurrentGameState() == GameState.WON) {
+                result = (byte) game.getCurrentPlayer().getPlayerID();
+            } else if (game.getCurrentGameState() == GameState.DRAW) {
+                result = RESULT_DRAW;
+            }
+            for (int offset = start + RESULT_OFFSET; offset < buffer.position(); offset += RECORD_BYTES) {
+                buffer.put(offset, result);
+            }
+        }
+
+        /**
+         * Sets the bit of a cell in the plane of a player.
+         *
+         * @param symmetryPlanes The planes of all players in one symmetry.
+         * @param player The player ID.
+         * @param cell The cell index.
+         */
+        private void setBit(long[] symmetryPlanes, int player, int cell) {
+            symmetryPlanes[player * PLANE_WORDS + (cell >>> 6)] |= 1L << cell;
+        }
+
+        /**
+         * Writes the buffered records to the output file.
+         */
+        private void flush() {
+            buffer.flip();
+            long offset = position.getAndAdd(buffer.remaining());
+            try {
+                while (buffer.hasRemaining()) {
+                    offset += channel.write(buffer, offset);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Summary of an export.
+     */
+    public static final class ExportSummary {
+        private final long games;
+        private final long records;
+        private final long skippedGames;
+
+        /**
+         * Creates a summary.
+         *
+         * @param games The number of exported games.
+         * @param records The number of written records.
+         * @param skippedGames The number of skipped invalid records.
+         */
+        private ExportSummary(long games, long records, long skippedGames) {
+            this.games = games;
+            this.records = records;
+            this.skippedGames = skippedGames;
+        }
+
+        /**
+         * Returns the number of exported games.
+         *
+         * @return The game count.
+         */
+        public long getGames() {
+            return games;
+        }
+
+        /**
+         * Returns the number of written records, 8 per position.
+         *
+         * @return The record count.
+         */
+        public long getRecords() {
+            return records;
+        }
+
+        /**
+         * Returns the number of skipped invalid game records.
+         *
+         * @return The skipped game count.
+         */
+        public long getSkippedGames() {
+            return skippedGames;
+        }
+
+        @Override
+        public String toString() {
+            return games + " games, " + records + " records, " + skippedGames + " skipped";
+        }
+    }
+}
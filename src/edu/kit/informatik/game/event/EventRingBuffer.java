@@ -0,0 +1,80 @@
+package edu.kit.informatik.game.event;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded lock-free ring buffer for exactly one producer and one consumer thread.
+ * <p>
+ * The capacity is rounded up to a power of two so that slots can be addressed with a mask. The
+ * producer never waits: {@link #offer(Object)} fails immediately if the buffer is full.
+ * </p>
+ *
+ * @param <T> The type of the buffered elements.
+ */
+final class EventRingBuffer<T> {
+    private final Object[] slots;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Creates a new ring buffer.
+     *
+     * @param capacity The minimum number of elements the buffer can hold.
+     * @throws IllegalArgumentException If the capacity is not positive or too large.
+     */
+    EventRingBuffer(int capacity) {
+        if (capacity <= 0 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Invalid buffer capacity: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new Object[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Appends an element. Must only be called by the producer thread.
+     *
+     * @param element The element to append.
+     * @return True if the element was appended, false if the buffer is full.
+     */
+    boolean offer(T element) {
+        long currentTail = tail.get();
+        if (currentTail - head.get() == slots.length) {
+            return false;
+        }
+        slots[(int) currentTail & mask] = element;
+        tail.lazySet(currentTail + 1);
+        return true;
+    }
+
+    /**
+     * Removes the oldest element. Must only be called by the consumer thread.
+     *
+     * @return The oldest element, or {@code null} if the buffer is empty.
+     */
+    @SuppressWarnings("unchecked")
+    T poll() {
+        long currentHead = head.get();
+        if (currentHead == tail.get()) {
+            return null;
+        }
+        int index = (int) currentHead & mask;
+        T element = (T) slots[index];
+        slots[index] = null;
+        head.lazySet(currentHead + 1);
+        return element;
+    }
+
+    /**
+     * Checks if the buffer is empty.
+     *
+     * @return True if there is no element to poll, false otherwise.
+     */
+    boolean isEmpty() {
+        return head.get() == tail.get();
+    }
+}
@@ -0,0 +1,161 @@
+package edu.kit.informatik.game.event;
+
+import java.util.Objects;
+
+import edu.kit.informatik.game.Player;
+
+/**
+ * An immutable event published by a Connect Six game.
+ * <p>
+ * Every event carries its {@link GameEventType}, the game counter at the time it happened and,
+ * depending on the type, the player and the cell it refers to.
+ * </p>
+ */
+public final class GameEvent {
+    private static final int NO_CELL = -1;
+
+    private final GameEventType type;
+    private final Player player;
+    private final int row;
+    private final int column;
+    private final int gameCounter;
+
+    /**
+     * Creates a new game event.
+     *
+     * @param type The type of the event.
+     * @param player The player the event refers to, or {@code null}.
+     * @param row The row of the cell, or -1.
+     * @param column The column of the cell, or -1.
+     * @param gameCounter The game counter at the time of the event.
+     */
+    private GameEvent(GameEventType type, Player player, int row, int column, int gameCounter) {
+        this.type = Objects.requireNonNull(type);
+        this.player = player;
+        this.row = row;
+        this.column = column;
+        this.gameCounter = gameCounter;
+    }
+
+    /**
+     * Creates an event for a placed token.
+     *
+     * @param player The player who placed the token.
+     * @param row The row of the token.
+     * @param column The column of the token.
+     * @param gameCounter The game counter after the placement.
+     * @return The new event.
+     */
+    public static GameEvent stonePlaced(final Player player, final int row, final int column, final int gameCounter) {
+        return new GameEvent(GameEventType.STONE_PLACED, player, row, column, gameCounter);
+    }
+
+    /**
+     * Creates an event for a change of turns.
+     *
+     * @param player The player who is to move next.
+     * @param gameCounter The current game counter.
+     * @return The new event.
+     */
+    public static GameEvent turnChanged(final Player player, final int gameCounter) {
+        return new GameEvent(GameEventType.TURN_CHANGED, player, NO_CELL, NO_CELL, gameCounter);
+    }
+
+    /**
+     * Creates an event for a forfeit, e.g. after a player ran out of time.
+     *
+     * @param player The player who forfeited.
+     * @param gameCounter The current game counter.
+     * @return The new event.
+     */
+    public static GameEvent playerForfeited(final Player player, final int gameCounter) {
+        return new GameEvent(GameEventType.PLAYER_FORFEITED, player, NO_CELL, NO_CELL, gameCounter);
+    }
+
+    /**
+     * Creates an event for a won game.
+     *
+     * @param winner The player who won the game.
+     * @param gameCounter The final game counter.
+     * @return The new event.
+     */
+    public static GameEvent gameWon(final Player winner, final int gameCounter) {
+        return new GameEvent(GameEventType.GAME_WON, winner, NO_CELL, NO_CELL, gameCounter);
+    }
+
+    /**
+     * Creates an event for a drawn game.
+     *
+     * @param gameCounter The final game counter.
+     * @return The new event.
+     */
+    public static GameEvent gameDrawn(final int gameCounter) {
+        return new GameEvent(GameEventType.GAME_DRAWN, null, NO_CELL, NO_CELL, gameCounter);
+    }
+
+    /**
+     * Creates an event for a reset game.
+     *
+     * @return The new event.
+     */
+    public static GameEvent reset() {
+        return new GameEvent(GameEventType.RESET, null, NO_CELL, NO_CELL, 0);
+    }
+
+    /**
+     * Returns the type of the event.
+     *
+     * @return The event type.
+     */
+    public GameEventType getType() {
+        return type;
+    }
+
+    /**
+     * Returns the player the event refers to.
+     *
+     * @return The player, or {@code null} for draws and resets.
+     */
+    public Player getPlayer() {
+        return player;
+    }
+
+    /**
+     * Returns the row of the placed token.
+     *
+     * @return The row, or -1 if the event does not refer to a cell.
+     */
+    public int getRow() {
+        return row;
+    }
+
+    /**
+     * Returns the column of the placed token.
+     *
+     * @return The column, or -1 if the event does not refer to a cell.
+     */
+    public int getColumn() {
+        return column;
+    }
+
+    /**
+     * Returns the game counter at the time of the event.
+     *
+     * @return The game counter.
+     */
+    public int getGameCounter() {
+        return gameCounter;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(type.name());
+        if (player != null) {
+            builder.append(' ').append(player);
+        }
+        if (row != NO_CELL) {
+            builder.append(' ').append(row).append(';').append(column);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,208 @@
+package edu.kit.informatik.game.event;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes the events of a Connect Six game to asynchronous subscribers.
+ * <p>
+ * Events are published by the game thread and delivered on an {@link Executor}. Every subscription
+ * owns a bounded {@link EventRingBuffer} between the game thread and its subscriber and honours the
+ * demand requested through {@link Flow.Subscription#request(long)}. Publishing never blocks: if a
+ * subscriber falls so far behind that its buffer is full, further events for that subscriber are
+ * dropped and counted in {@link #getDroppedEvents()}.
+ * </p>
+ *
+ * <p>
+ * {@link #publish(GameEvent)} and {@link #close()} must always be called from the same thread.
+ * </p>
+ */
+public class GameEventPublisher implements Flow.Publisher<GameEvent> {
+    /**
+     * The default number of buffered events per subscriber.
+     */
+    public static final int DEFAULT_BUFFER_CAPACITY = 256;
+
+    private final Executor executor;
+    private final int bufferCapacity;
+    private final List<EventSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private volatile boolean closed;
+
+    /**
+     * Creates a new publisher delivering on the common pool with the default buffer capacity.
+     */
+    public GameEventPublisher() {
+        this(ForkJoinPool.commonPool(), DEFAULT_BUFFER_CAPACITY);
+    }
+
+    /**
+     * Creates a new publisher.
+     *
+     * @param executor The executor to deliver events on.
+     * @param bufferCapacity The number of buffered events per subscriber.
+     * @throws IllegalArgumentException If the buffer capacity is invalid.
+     */
+    public GameEventPublisher(final Executor executor, final int bufferCapacity) {
+        if (bufferCapacity <= 0) {
+            throw new IllegalArgumentException("Invalid buffer capacity: " + bufferCapacity);
+        }
+        this.executor = Objects.requireNonNull(executor);
+        this.bufferCapacity = bufferCapacity;
+    }
+
+    @Override
+    public void subscribe(final Flow.Subscriber<? super GameEvent> subscriber) {
+        EventSubscription subscription = new EventSubscription(Objects.requireNonNull(subscriber));
+        subscriptions.add(subscription);
+        subscription.schedule();
+    }
+
+    /**
+     * Checks if there is at least one active subscriber.
+     *
+     * @return True if events are delivered to anyone, false otherwise.
+     */
+    public boolean hasSubscribers() {
+        return !subscriptions.isEmpty();
+    }
+
+    /**
+     * Publishes an event to all current subscribers without blocking.
+     *
+     * @param event The event to publish.
+     */
+    public void publish(final GameEvent event) {
+        if (closed) {
+            return;
+        }
+        for (EventSubscription subscription : subscriptions) {
+            if (subscription.buffer.offer(event)) {
+                subscription.schedule();
+            } else {
+                droppedEvents.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Closes the publisher. Subscribers receive their remaining buffered events and are completed.
+     */
+    public void close() {
+        closed = true;
+        for (EventSubscription subscription : subscriptions) {
+            subscription.schedule();
+        }
+    }
+
+    /**
+     * Returns the number of events dropped because a subscriber buffer was full.
+     *
+     * @return The number of dropped events.
+     */
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    /**
+     * A single subscription with its own buffer and demand.
+     */
+    private final class EventSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super GameEvent> subscriber;
+        private final EventRingBuffer<GameEvent> buffer = new EventRingBuffer<>(bufferCapacity);
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger pendingDrains = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile Throwable error;
+        private boolean started;
+
+        /**
+         * Creates a new subscription.
+         *
+         * @param subscriber The subscriber to deliver to.
+         */
+        EventSubscription(Flow.Subscriber<? super GameEvent> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(final long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("Invalid demand: " + n);
+            } else {
+                demand.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+        }
+
+        /**
+         * Schedules a drain of the buffer unless one is already pending.
+         */
+        void schedule() {
+            if (pendingDrains.getAndIncrement() == 0) {
+                executor.execute(this::drain);
+            }
+        }
+
+        /**
+         * Delivers buffered events until the buffer is empty or the demand is exhausted. At most one
+         * drain runs at a time, so this is the single consumer of the buffer.
+         */
+        private void drain() {
+            int missed = 1;
+            do {
+                if (!started) {
+                    started = true;
+                    subscriber.onSubscribe(this);
+                }
+                deliver();
+                missed = pendingDrains.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        /**
+         * Delivers events according to the current demand and completes the subscriber if necessary.
+         */
+        private void deliver() {
+            while (!cancelled) {
+                if (error != null) {
+                    cancel();
+                    subscriber.onError(error);
+                    return;
+                }
+                if (closed && buffer.isEmpty()) {
+                    cancel();
+                    subscriber.onComplete();
+                    return;
+                }
+                if (demand.get() == 0) {
+                    return;
+                }
+                GameEvent event = buffer.poll();
+                if (event == null) {
+                    return;
+                }
+                if (demand.get() != Long.MAX_VALUE) {
+                    demand.decrementAndGet();
+                }
+                try {
+                    subscriber.onNext(event);
+                } catch (RuntimeException exception) {
+                    error = exception;
+                }
+            }
+        }
+    }
+}
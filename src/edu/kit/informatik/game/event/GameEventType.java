@@ -0,0 +1,37 @@
+package edu.kit.informatik.game.event;
+
+/**
+ * This enum represents the types of events published by a Connect Six game.
+ */
+public enum GameEventType {
+
+    /**
+     * A token was placed on the board.
+     */
+    STONE_PLACED,
+
+    /**
+     * The next player is to move.
+     */
+    TURN_CHANGED,
+
+    /**
+     * A player forfeited the game and is skipped from now on.
+     */
+    PLAYER_FORFEITED,
+
+    /**
+     * The current player won the game.
+     */
+    GAME_WON,
+
+    /**
+     * The game ended in a draw.
+     */
+    GAME_DRAWN,
+
+    /**
+     * The game was reset to its initial state.
+     */
+    RESET
+}
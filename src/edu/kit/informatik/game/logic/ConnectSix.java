@@ -5,6 +5,10 @@ import java.util.Objects;
 import edu.kit.informatik.InvalidInputException;
 import edu.kit.informatik.game.Player;
 import edu.kit.informatik.game.board.Board;
+import edu.kit.informatik.game.board.LineTable;
+import edu.kit.informatik.game.board.WindowTable;
+import edu.kit.informatik.game.event.GameEvent;
+import edu.kit.informatik.game.event.GameEventPublisher;
 
 /**
  * Manages the core logic and state of a Connect Six game.
@@ -23,12 +27,15 @@ import edu.kit.informatik.game.board.Board;
  */
 public class ConnectSix {
     private Board board;
-    private int boardSize;
+    private GameRules rules;
     private int playerAmount;
 
     private Player currentPlayer;
     private GameState currentGameState;
     private int gameCounter;
+    private int forfeitedPlayers;
+    private int[] forfeitTurns;
+    private GameEventPublisher events;
 
     /**
      * Initializes a new Connect Six game.
@@ -39,16 +46,140 @@ public class ConnectSix {
      * @throws IllegalArgumentException If the board, board size, or player amount is invalid.
      */
     public ConnectSix(Board board, int boardSize, int playerAmount) {
+        this(board, GameRules.defaults(boardSize), playerAmount);
+    }
+
+    /**
+     * Initializes a new game of a Connect(m,n,k,p,q) variant.
+     *
+     * @param board The game board to use (e.g., standard or torus board).
+     * @param rules The rules of the game.
+     * @param playerAmount The number of players participating in the game.
+     * @throws IllegalArgumentException If the board, rules, or player amount is invalid.
+     */
+    public ConnectSix(Board board, GameRules rules, int playerAmount) {
         this.board = Objects.requireNonNull(board);
-        this.boardSize = boardSize;
+        this.rules = Objects.requireNonNull(rules);
         this.playerAmount = playerAmount;
 
-        this.board.initialize(boardSize);
+        this.board.initialize(rules);
         setCurrentPlayer(Player.P1);
         setCurrentGameState(GameState.RUNNING);
         setGameCounter(0);
     }
 
+    /**
+     * Creates an independent copy of another game.
+     *
+     * @param original The game to copy.
+     */
+    private ConnectSix(ConnectSix original) {
+        this.board = original.board.copy();
+        this.rules = original.rules;
+        this.playerAmount = original.playerAmount;
+        this.currentPlayer = original.currentPlayer;
+        this.currentGameState = original.currentGameState;
+        this.gameCounter = original.gameCounter;
+        this.forfeitedPlayers = original.forfeitedPlayers;
+        this.forfeitTurns = original.forfeitTurns == null ? null : original.forfeitTurns.clone();
+    }
+
+    /**
+     * Forks the game. The fork has the same board, current player, game counter and game state,
+     * but shares no mutable state with this game, so it may be handed to and changed by another thread.
+     * Event subscribers are not carried over to the fork.
+     *
+     * @return The forked game.
+     */
+    public ConnectSix fork() {
+        return new ConnectSix(this);
+    }
+
+    /**
+     * Returns the type of the game board.
+     *
+     * @return The board type, "standard" or "torus".
+     */
+    public String getBoardType() {
+        return board.getType();
+    }
+
+    /**
+     * Returns the size of the game board. For boards that are not square, this is the number of
+     * columns, the length of a row in row-major cell indices.
+     *
+     * @return The board size (length and width).
+     */
+    public int getBoardSize() {
+        return rules.getColumns();
+    }
+
+    /**
+     * Returns the rules of the game.
+     *
+     * @return The game rules.
+     */
+    public GameRules getRules() {
+        return rules;
+    }
+
+    /**
+     * Returns the number of players participating in the game.
+     *
+     * @return The player amount.
+     */
+    public int getPlayerAmount() {
+        return playerAmount;
+    }
+
+    /**
+     * Returns the token on a cell of the board.
+     *
+     * @param cell The row-major index of the cell, {@code row * columns + column}.
+     * @return The player owning the cell, or {@code null} if the cell is empty.
+     */
+    public Player getCell(final int cell) {
+        return board.getCell(cell);
+    }
+
+    /**
+     * Returns the cell of a placed token. Tokens are numbered in placement order; with the default
+     * rules, the tokens of move {@code m} have the indices {@code 2 * m} and {@code 2 * m + 1}.
+     *
+     * @param index The index of the token, between 0 and {@link #getPlacedCount()} - 1.
+     * @return The row-major index of the token's cell.
+     */
+    public int getPlacedCell(final int index) {
+        return board.getPlacedCell(index);
+    }
+
+    /**
+     * Returns the number of tokens on the board.
+     *
+     * @return The number of placed tokens.
+     */
+    public int getPlacedCount() {
+        return board.getPlacedCount();
+    }
+
+    /**
+     * Returns the window table of the board, for evaluation code that scans winning lines.
+     *
+     * @return The shared window table.
+     */
+    public WindowTable getWindowTable() {
+        return board.getWindowTable();
+    }
+
+    /**
+     * Returns the line table of the board, for evaluation code that scans whole lines as bit masks.
+     *
+     * @return The shared line table, or {@code null} if the lines of the board do not fit into a mask.
+     */
+    public LineTable getLineTable() {
+        return board.getLineTable();
+    }
+
     /**
      * Returns the current player.
      *
@@ -68,10 +199,72 @@ public class ConnectSix {
     }
 
     /**
-     * Sets the next player.
+     * Sets the next player. Players who forfeited are skipped.
      */
     public void setNextPlayer() {
-        currentPlayer = currentPlayer.getNextPlayer(playerAmount);
+        do {
+            currentPlayer = currentPlayer.getNextPlayer(playerAmount);
+        } while (hasForfeited(currentPlayer));
+    }
+
+    /**
+     * Checks if a player forfeited the game.
+     *
+     * @param player The player.
+     * @return True if the player forfeited, false otherwise.
+     */
+    public boolean hasForfeited(final Player player) {
+        return (forfeitedPlayers & 1 << player.getPlayerID()) != 0;
+    }
+
+    /**
+     * Returns the turn in which a player forfeited the game.
+     *
+     * @param player The player.
+     * @return The game counter at the time of the forfeit, or -1 if the player did not forfeit.
+     */
+    public int getForfeitTurn(final Player player) {
+        return hasForfeited(player) ? forfeitTurns[player.getPlayerID()] : -1;
+    }
+
+    /**
+     * Makes a player forfeit the running game, e.g. after running out of time. The player's tokens
+     * stay on the board, but the player is skipped from now on. If only one player is left, this
+     * player wins the game.
+     *
+     * @param player The player who forfeits.
+     * @throws IllegalStateException If the game is over or the player already forfeited.
+     * @throws IllegalArgumentException If the player does not take part in the game.
+     */
+    public void forfeit(final Player player) {
+        if (currentGameState != GameState.RUNNING || hasForfeited(player)) {
+            throw new IllegalStateException("Player cannot forfeit: " + player);
+        }
+        if (player.getPlayerID() >= playerAmount) {
+            throw new IllegalArgumentException("Invalid player: " + player);
+        }
+        forfeitedPlayers |= 1 << player.getPlayerID();
+        if (forfeitTurns == null) {
+            forfeitTurns = new int[Player.getMaxAmountOfPlayers()];
+        }
+        forfeitTurns[player.getPlayerID()] = gameCounter;
+        boolean publish = events != null && events.hasSubscribers();
+        if (publish) {
+            events.publish(GameEvent.playerForfeited(player, gameCounter));
+        }
+
+        if (Integer.bitCount(forfeitedPlayers) == playerAmount - 1) {
+            setCurrentPlayer(Player.getPlayerByID(Integer.numberOfTrailingZeros(~forfeitedPlayers)));
+            setCurrentGameState(GameState.WON);
+            if (publish) {
+                events.publish(GameEvent.gameWon(currentPlayer, gameCounter));
+            }
+        } else if (player == currentPlayer) {
+            setNextPlayer();
+            if (publish) {
+                events.publish(GameEvent.turnChanged(currentPlayer, gameCounter));
+            }
+        }
     }
 
     /**
@@ -122,7 +315,68 @@ public class ConnectSix {
      */
     public String placeToken(final int firstRow, final int firstColumn, final int secondRow, final int secondColumn)
             throws InvalidInputException {
-        return board.place(firstRow, firstColumn, secondRow, secondColumn, this);
+        Player player = currentPlayer;
+        int placedBefore = board.getPlacedCount();
+        String result = board.place(firstRow, firstColumn, secondRow, secondColumn, this);
+        if (events != null && events.hasSubscribers()) {
+            publishPlacement(player, placedBefore);
+        }
+        return result;
+    }
+
+    /**
+     * Places the tokens of a turn for the current player. The number of tokens is set by the rules:
+     * {@link GameRules#getFirstTurnStones()} in the first turn and {@link GameRules#getStonesPerTurn()}
+     * in every following turn.
+     *
+     * @param rows The row indices of the tokens.
+     * @param columns The column indices of the tokens.
+     * @return "OK" if the placement is valid, or an error message if the placement is invalid.
+     * @throws InvalidInputException If the placement violates game rules.
+     */
+    public String placeTokens(final int[] rows, final int[] columns) throws InvalidInputException {
+        Player player = currentPlayer;
+        int placedBefore = board.getPlacedCount();
+        String result = board.place(rows, columns, this);
+        if (events != null && events.hasSubscribers()) {
+            publishPlacement(player, placedBefore);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the publisher of this game's events. Subscribers receive the events of all
+     * following placements and resets.
+     *
+     * @return The event publisher.
+     */
+    public GameEventPublisher getEvents() {
+        if (events == null) {
+            events = new GameEventPublisher();
+        }
+        return events;
+    }
+
+    /**
+     * Publishes the events of the last placement.
+     *
+     * @param player The player who placed the tokens.
+     * @param placedBefore The number of tokens on the board before the placement.
+     */
+    private void publishPlacement(Player player, int placedBefore) {
+        int columns = rules.getColumns();
+        for (int i = placedBefore; i < board.getPlacedCount(); i++) {
+            int cell = board.getPlacedCell(i);
+            events.publish(GameEvent.stonePlaced(player, cell / columns, cell % columns, gameCounter));
+        }
+
+        if (currentGameState == GameState.WON) {
+            events.publish(GameEvent.gameWon(player, gameCounter));
+        } else if (currentGameState == GameState.DRAW) {
+            events.publish(GameEvent.gameDrawn(gameCounter));
+        } else {
+            events.publish(GameEvent.turnChanged(currentPlayer, gameCounter));
+        }
     }
 
     /**
@@ -160,15 +414,34 @@ public class ConnectSix {
 
     /**
      * Resets the game to its initial state. The board is cleared, the game counter is reset, 
-     * and the current player is set to Player 1.
+     * forfeits are revoked and the current player is set to Player 1.
      *
      * @return "OK" to indicate the game has been successfully reset.
      */
     public String resetGame() {
-        board.initialize(boardSize);
+        return resetGame(false);
+    }
+
+    /**
+     * Resets the game to its initial state, optionally for a new owner. If the events are closed,
+     * all current subscribers are completed instead of receiving a reset event, and the next
+     * {@link #getEvents()} returns a new publisher without subscribers.
+     *
+     * @param closeEvents True to close the event publisher, false to keep its subscribers.
+     * @return "OK" to indicate the game has been successfully reset.
+     */
+    public String resetGame(final boolean closeEvents) {
+        board.clear();
         setGameCounter(0);
         setCurrentPlayer(Player.P1);
         setCurrentGameState(GameState.RUNNING);
+        forfeitedPlayers = 0;
+        if (events != null && closeEvents) {
+            events.close();
+            events = null;
+        } else if (events != null && events.hasSubscribers()) {
+            events.publish(GameEvent.reset());
+        }
         return "OK";
     }
 }
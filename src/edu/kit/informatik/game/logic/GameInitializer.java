@@ -20,6 +20,7 @@ public class GameInitializer {
     private static final int MIN_EDGE_LENGTH = 17;
     private static final int MAX_EDGE_LENGTH = 21;
     private static final int MIN_AMOUNT_OF_PLAYERS = 2;
+    private static final int MAX_VARIANT_EDGE_LENGTH = Byte.MAX_VALUE;
 
     /**
      * Private constructor to prevent instantiation.
@@ -43,22 +44,124 @@ public class GameInitializer {
         }
 
         String gameType = args[0];
+        validateGameType(gameType);
+
+        int boardSize = parseInteger(args[1], "board size must be a valid integer.");
+        validateBoardSize(boardSize);
+
+        int playerCount = parseInteger(args[2], "player count must be a valid integer.");
+        validatePlayerCount(playerCount);
+
+        return new ConnectSix(createBoard(gameType), boardSize, playerCount);
+    }
+
+    /**
+     * Initializes a ConnectSix game instance based on already parsed arguments.
+     *
+     * @param gameType The game mode, "standard" or "torus".
+     * @param boardSize The size of the board.
+     * @param playerCount The number of players.
+     * @return A fully initialized ConnectSix instance.
+     * @throws InvalidInputException If any of the arguments are invalid.
+     */
+    public static ConnectSix initializeGame(final String gameType, final int boardSize, final int playerCount)
+            throws InvalidInputException {
+        validateGameType(gameType);
+        validateBoardSize(boardSize);
+        validatePlayerCount(playerCount);
+        return new ConnectSix(createBoard(gameType), boardSize, playerCount);
+    }
+
+    /**
+     * Initializes a game of a Connect(m,n,k,p,q) variant. Variants are not bound to the board sizes
+     * of the command line game, but rows and columns must not exceed
+     * {@value #MAX_VARIANT_EDGE_LENGTH}, so every dimension fits into a byte of a game record, the
+     * win length must fit into a line of the board and no turn may place more tokens than the board
+     * has cells.
+     *
+     * @param gameType The game mode, "standard" or "torus".
+     * @param rules The rules of the variant.
+     * @param playerCount The number of players.
+     * @return A fully initialized ConnectSix instance.
+     * @throws InvalidInputException If any of the arguments are invalid.
+     */
+    public static ConnectSix initializeGame(final String gameType, final GameRules rules, final int playerCount)
+            throws InvalidInputException {
+        validateGameType(gameType);
+        validateRules(gameType, rules);
+        validatePlayerCount(playerCount);
+        return new ConnectSix(createBoard(gameType), rules, playerCount);
+    }
+
+    /**
+     * Creates an empty board of the given game type.
+     *
+     * @param gameType The game mode, "standard" or "torus".
+     * @return The new board.
+     */
+    private static Board createBoard(String gameType) {
+        return gameType.equals("standard") ? new StandardBoard() : new TorusBoard();
+    }
+
+    /**
+     * Validates the game type.
+     *
+     * @param gameType The game type to validate.
+     * @throws InvalidInputException If the game type is invalid.
+     */
+    private static void validateGameType(String gameType) throws InvalidInputException {
         if (!isValidGameType(gameType)) {
             throw new InvalidInputException("invalid game type. Expected 'standard' or 'torus'.");
         }
+    }
 
-        int boardSize = parseInteger(args[1], "board size must be a valid integer.");
+    /**
+     * Validates the board size.
+     *
+     * @param boardSize The board size to validate.
+     * @throws InvalidInputException If the board size is invalid.
+     */
+    private static void validateBoardSize(int boardSize) throws InvalidInputException {
         if (!isValidBoardSize(boardSize)) {
             throw new InvalidInputException("invalid board size. Must be an even number between " + MIN_EDGE_LENGTH + " and " + MAX_EDGE_LENGTH + ".");
         }
+    }
 
-        int playerCount = parseInteger(args[2], "player count must be a valid integer.");
+    /**
+     * Validates the rules of a variant.
+     *
+     * @param gameType The game type, already validated.
+     * @param rules The rules to validate.
+     * @throws InvalidInputException If the rules are invalid for the game type.
+     */
+    private static void validateRules(String gameType, GameRules rules) throws InvalidInputException {
+        int rows = rules.getRows();
+        int columns = rules.getColumns();
+        if (rows > MAX_VARIANT_EDGE_LENGTH || columns > MAX_VARIANT_EDGE_LENGTH) {
+            throw new InvalidInputException("invalid rules. Rows and columns must not exceed "
+                    + MAX_VARIANT_EDGE_LENGTH + ".");
+        }
+        // Lines of a torus wrap around, so windows must not be longer than its shortest line
+        int longestWindow = gameType.equals("standard") ? Math.max(rows, columns) : Math.min(rows, columns);
+        if (rules.getWinLength() > longestWindow) {
+            throw new InvalidInputException("invalid rules. The win length must fit into a line of the board.");
+        }
+        if (rules.getFirstTurnStones() > rules.getCellCount() || rules.getStonesPerTurn() > rules.getCellCount()) {
+            throw new InvalidInputException(
+                    "invalid rules. A turn must not place more tokens than the board has cells.");
+        }
+    }
+
+    /**
+     * Validates the player count.
+     *
+     * @param playerCount The player count to validate.
+     * @throws InvalidInputException If the player count is invalid.
+     */
+    private static void validatePlayerCount(int playerCount) throws InvalidInputException {
         if (!isValidPlayerCount(playerCount)) {
             throw new InvalidInputException("invalid player count. Must be between " + MIN_AMOUNT_OF_PLAYERS + " and " + Player.getMaxAmountOfPlayers() + ".");
         }
-
-        Board board = gameType.equals("standard") ? new StandardBoard() : new TorusBoard();
-        return new ConnectSix(board, boardSize, playerCount);
     }
 
     /**
@@ -0,0 +1,93 @@
+package edu.kit.informatik.game.logic;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+import edu.kit.informatik.InvalidInputException;
+
+/**
+ * Pool of reusable Connect Six games for hosts that run many games.
+ * <p>
+ * Games are pooled by board type, rules and player amount. A released game is reset in place
+ * and handed out again by the next {@link #acquire(String, GameRules, int)} with the same configuration,
+ * so neither the game nor its board has to be allocated again. Releasing a game closes its event
+ * publisher, so every acquirer starts without the subscribers of the previous owner. The pool is thread-safe; a single
+ * game must only be used by one thread at a time.
+ * </p>
+ */
+public class GamePool {
+    private final Map<String, Queue<ConnectSix>> idleGames = new ConcurrentHashMap<>();
+    private final int maxIdleGames;
+
+    /**
+     * Creates a new game pool.
+     *
+     * @param maxIdleGames The maximum number of idle games kept per configuration.
+     * @throws IllegalArgumentException If the maximum is not positive.
+     */
+    public GamePool(final int maxIdleGames) {
+        if (maxIdleGames <= 0) {
+            throw new IllegalArgumentException("Invalid pool capacity: " + maxIdleGames);
+        }
+        this.maxIdleGames = maxIdleGames;
+    }
+
+    /**
+     * Returns a game in its initial state, reusing an idle game if one is available.
+     *
+     * @param gameType The game mode, "standard" or "torus".
+     * @param boardSize The size of the board.
+     * @param playerAmount The number of players.
+     * @return A running game with an empty board.
+     * @throws InvalidInputException If the configuration is invalid.
+     */
+    public ConnectSix acquire(final String gameType, final int boardSize, final int playerAmount)
+            throws InvalidInputException {
+        Queue<ConnectSix> games = idleGames.get(key(gameType, GameRules.defaults(boardSize), playerAmount));
+        ConnectSix game = games == null ? null : games.poll();
+        return game != null ? game : GameInitializer.initializeGame(gameType, boardSize, playerAmount);
+    }
+
+    /**
+     * Returns a game of a variant in its initial state, reusing an idle game if one is available.
+     *
+     * @param gameType The game mode, "standard" or "torus".
+     * @param rules The rules of the variant.
+     * @param playerAmount The number of players.
+     * @return A running game with an empty board.
+     * @throws InvalidInputException If the configuration is invalid.
+     */
+    public ConnectSix acquire(final String gameType, final GameRules rules, final int playerAmount)
+            throws InvalidInputException {
+        Queue<ConnectSix> games = idleGames.get(key(gameType, rules, playerAmount));
+        ConnectSix game = games == null ? null : games.poll();
+        return game != null ? game : GameInitializer.initializeGame(gameType, rules, playerAmount);
+    }
+
+    /**
+     * Resets a game and returns it to the pool. The subscribers of its events are completed. The
+     * game must not be used after it was released. Games beyond the capacity of the pool are left
+     * to the garbage collector.
+     *
+     * @param connectSix The game to release.
+     */
+    public void release(final ConnectSix connectSix) {
+        connectSix.resetGame(true);
+        String key = key(connectSix.getBoardType(), connectSix.getRules(), connectSix.getPlayerAmount());
+        idleGames.computeIfAbsent(key, ignored -> new ArrayBlockingQueue<>(maxIdleGames)).offer(connectSix);
+    }
+
+    /**
+     * Builds the pool key of a game configuration.
+     *
+     * @param gameType The game mode.
+     * @param rules The rules of the game.
+     * @param playerAmount The number of players.
+     * @return The pool key.
+     */
+    private static String key(String gameType, GameRules rules, int playerAmount) {
+        return gameType + ':' + rules + ':' + playerAmount;
+    }
+}
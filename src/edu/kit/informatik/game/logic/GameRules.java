@@ -0,0 +1,210 @@
+package edu.kit.informatik.game.logic;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import edu.kit.informatik.InvalidInputException;
+
+/**
+ * The rules of a game in the Connect(m,n,k,p,q) family.
+ * <p>
+ * The board has m rows and n columns, the first player places p tokens in the first turn, every
+ * following turn places q tokens, and k tokens in a row win. The game played on the command line
+ * uses a square board, k = 6 and two tokens in every turn, including the first. Rules are immutable,
+ * and boards with equal rules share their precomputed tables.
+ * </p>
+ *
+ * <p>
+ * As text, rules are written as {@code <rows>x<columns>,k<k>,p<p>,q<q>}, e.g. {@code 15x15,k5,p1,q1}
+ * for Gomoku. A single number denotes the default rules on a square board of that size.
+ * </p>
+ */
+public final class GameRules {
+    private static final int DEFAULT_WIN_LENGTH = 6;
+    private static final int DEFAULT_STONES_PER_TURN = 2;
+    private static final Pattern TEXT_FORM = Pattern.compile("(\\d+)x(\\d+),k(\\d+),p(\\d+),q(\\d+)");
+
+    private final int rows;
+    private final int columns;
+    private final int winLength;
+    private final int firstTurnStones;
+    private final int stonesPerTurn;
+
+    /**
+     * Creates game rules.
+     *
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     * @param winLength The number of tokens in a row that win.
+     * @param firstTurnStones The number of tokens placed in the first turn.
+     * @param stonesPerTurn The number of tokens placed in every following turn.
+     */
+    private GameRules(int rows, int columns, int winLength, int firstTurnStones, int stonesPerTurn) {
+        this.rows = rows;
+        this.columns = columns;
+        this.winLength = winLength;
+        this.firstTurnStones = firstTurnStones;
+        this.stonesPerTurn = stonesPerTurn;
+    }
+
+    /**
+     * Creates the default rules on a square board: six in a row win, and every turn places two tokens.
+     *
+     * @param size The size of the board (length and width).
+     * @return The rules.
+     * @throws IllegalArgumentException If the size is not positive.
+     */
+    public static GameRules defaults(final int size) {
+        return of(size, size, DEFAULT_WIN_LENGTH, DEFAULT_STONES_PER_TURN, DEFAULT_STONES_PER_TURN);
+    }
+
+    /**
+     * Creates Connect(m,n,k,p,q) rules.
+     *
+     * @param rows The number of rows m.
+     * @param columns The number of columns n.
+     * @param winLength The number of tokens in a row that win, k.
+     * @param firstTurnStones The number of tokens placed in the first turn, p.
+     * @param stonesPerTurn The number of tokens placed in every following turn, q.
+     * @return The rules.
+     * @throws IllegalArgumentException If a parameter is not positive.
+     */
+    public static GameRules of(final int rows, final int columns, final int winLength, final int firstTurnStones,
+            final int stonesPerTurn) {
+        if (rows <= 0 || columns <= 0 || winLength <= 0 || firstTurnStones <= 0 || stonesPerTurn <= 0) {
+            throw new IllegalArgumentException("Invalid rules: " + rows + "x" + columns + ",k" + winLength
+                    + ",p" + firstTurnStones + ",q" + stonesPerTurn);
+        }
+        return new GameRules(rows, columns, winLength, firstTurnStones, stonesPerTurn);
+    }
+
+    /**
+     * Parses rules from their text form.
+     *
+     * @param text The rules as text, or the size of a square board with default rules.
+     * @return The rules.
+     * @throws InvalidInputException If the text is not valid.
+     */
+    public static GameRules parse(final String text) throws InvalidInputException {
+        try {
+            if (text.indexOf('x') < 0) {
+                return defaults(Integer.parseInt(text));
+            }
+            Matcher matcher = TEXT_FORM.matcher(text);
+            if (matcher.matches()) {
+                return of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)),
+                        Integer.parseInt(matcher.group(3)), Integer.parseInt(matcher.group(4)),
+                        Integer.parseInt(matcher.group(5)));
+            }
+            throw new InvalidInputException("invalid rules: " + text);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidInputException("invalid rules: " + text);
+        }
+    }
+
+    /**
+     * Returns the number of rows.
+     *
+     * @return The row count.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns the number of columns, which is also the distance between two rows in row-major
+     * cell indices {@code row * columns + column}.
+     *
+     * @return The column count.
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns the number of cells of the board.
+     *
+     * @return The cell count.
+     */
+    public int getCellCount() {
+        return rows * columns;
+    }
+
+    /**
+     * Returns the number of tokens in a row that win.
+     *
+     * @return The win length.
+     */
+    public int getWinLength() {
+        return winLength;
+    }
+
+    /**
+     * Returns the number of tokens placed in the first turn.
+     *
+     * @return The first turn's token count.
+     */
+    public int getFirstTurnStones() {
+        return firstTurnStones;
+    }
+
+    /**
+     * Returns the number of tokens placed in every turn after the first.
+     *
+     * @return The token count per turn.
+     */
+    public int getStonesPerTurn() {
+        return stonesPerTurn;
+    }
+
+    /**
+     * Returns the number of tokens a turn has to place. The last turn places fewer tokens if the board
+     * has not enough empty cells left.
+     *
+     * @param turn The number of turns played before.
+     * @param placedStones The number of tokens on the board.
+     * @return The token count of the turn.
+     */
+    public int getStonesForTurn(final int turn, final int placedStones) {
+        return Math.min(turn == 0 ? firstTurnStones : stonesPerTurn, getCellCount() - placedStones);
+    }
+
+    /**
+     * Returns the largest number of tokens any turn places.
+     *
+     * @return The maximum token count per turn.
+     */
+    public int getMaxStonesPerTurn() {
+        return Math.max(firstTurnStones, stonesPerTurn);
+    }
+
+    /**
+     * Checks if these are the default rules on a square board.
+     *
+     * @return True for the default rules, false for other variants.
+     */
+    public boolean isDefault() {
+        return equals(defaults(rows));
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (!(other instanceof GameRules)) {
+            return false;
+        }
+        GameRules rules = (GameRules) other;
+        return rows == rules.rows && columns == rules.columns && winLength == rules.winLength
+                && firstTurnStones == rules.firstTurnStones && stonesPerTurn == rules.stonesPerTurn;
+    }
+
+    @Override
+    public int hashCode() {
+        return (((rows * 31 + columns) * 31 + winLength) * 31 + firstTurnStones) * 31 + stonesPerTurn;
+    }
+
+    @Override
+    public String toString() {
+        return isDefault() ? Integer.toString(rows)
+                : rows + "x" + columns + ",k" + winLength + ",p" + firstTurnStones + ",q" + stonesPerTurn;
+    }
+}
@@ -0,0 +1,524 @@
+package edu.kit.informatik.game.selfplay;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+
+import edu.kit.informatik.InvalidInputException;
+import edu.kit.informatik.game.Player;
+import edu.kit.informatik.game.data.GameRecord;
+import edu.kit.informatik.game.logic.ConnectSix;
+import edu.kit.informatik.game.logic.GameRules;
+import edu.kit.informatik.game.logic.GameState;
+
+/**
+ * Coordinator process of a distributed self-play run.
+ * <p>
+ * The coordinator accepts {@link SelfPlayWorker}s on a server socket and hands out the batches of a
+ * {@link SelfPlayJob}, keeping {@value #TASKS_PER_WORKER} batches in flight per worker so that no
+ * worker waits for its next batch. Every connection is served by its own thread. A worker that
+ * disconnects, sends an invalid result or stays silent for longer than the worker timeout is
+ * dropped, and its unfinished batches are handed out again, ahead of all others.
+ * </p>
+ *
+ * <p>
+ * Results are merged deterministically: the games are written as {@link GameRecord} transcripts in
+ * the order of their index, whichever worker played them, and the summary is counted in the same
+ * order. Only the batches that finished ahead of the next batch to write are held in memory.
+ * </p>
+ *
+ * <p>
+ * Usage: {@code java edu.kit.informatik.game.selfplay.SelfPlayCoordinator <port> <board type> <rules>
+ * <players> <games> <batch size> <seed> <output file>}
+ * </p>
+ */
+public class SelfPlayCoordinator {
+    /**
+     * Time without any message after which a busy worker is considered lost, in milliseconds.
+     */
+    public static final int DEFAULT_WORKER_TIMEOUT_MILLIS = 10_000;
+
+    private static final int TASKS_PER_WORKER = 2;
+    private static final long IDLE_POLL_MILLIS = 50;
+    private static final int GAME_HEADER_BYTES = 3;
+
+    private final SelfPlayJob job;
+    private final int workerTimeoutMillis;
+    private final BlockingDeque<Integer> pendingBatches = new LinkedBlockingDeque<>();
+    private final BatchResult[] finishedBatches;
+    private final List<Thread> connections = new ArrayList<>();
+    private int completedBatches;
+    private int lostWorkers;
+    private int requeuedBatches;
+    private boolean closed;
+
+    /**
+     * Creates a coordinator.
+     *
+     * @param job The job to distribute.
+     * @param workerTimeoutMillis The time without any message after which a busy worker is lost.
+     * @throws IllegalArgumentException If the timeout is not positive.
+     */
+    public SelfPlayCoordinator(final SelfPlayJob job, final int workerTimeoutMillis) {
+        if (workerTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("Invalid worker timeout: " + workerTimeoutMillis);
+        }
+        this.job = job;
+        this.workerTimeoutMillis = workerTimeoutMillis;
+        this.finishedBatches = new BatchResult[job.getBatchCount()];
+    }
+
+    /**
+     * Runs a self-play job on the loopback interface and prints its summary.
+     *
+     * @param args The port, board type, rules, player amount, game count, batch size, seed and output file.
+     * @throws IOException If the server socket cannot be opened or the output cannot be written.
+     * @throws InterruptedException If interrupted while waiting for the workers.
+     */
+    public static void main(final String[] args) throws IOException, InterruptedException {
+        if (args.length != 8) {
+            System.out.println("Error, usage: SelfPlayCoordinator <port> <board type> <rules> <players> <games> "
+                    + "<batch size> <seed> <output file>");
+            return;
+        }
+        int port;
+        SelfPlayJob job;
+        try {
+            port = Integer.parseInt(args[0]);
+            job = new SelfPlayJob(args[1], GameRules.parse(args[2]), Integer.parseInt(args[3]),
+                    Long.parseLong(args[6]), Integer.parseInt(args[4]), Integer.parseInt(args[5]));
+        } catch (InvalidInputException e) {
+            System.out.println("Error, " + e.getMessage());
+            return;
+        } catch (NumberFormatException e) {
+            System.out.println("Error, invalid number: " + e.getMessage());
+            return;
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error, the number of games and the batch size must be positive.");
+            return;
+        }
+        if (port < 0 || port > SelfPlayProtocol.MAX_PORT) {
+            System.out.println("Error, invalid port: " + port);
+            return;
+        }
+        try (ServerSocket server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+            SelfPlayCoordinator coordinator = new SelfPlayCoordinator(job, DEFAULT_WORKER_TIMEOUT_MILLIS);
+            System.out.println(coordinator.run(server, Paths.get(args[7])));
+        }
+    }
+
+    /**
+     * Distributes the job to all workers connecting to a server socket and writes the transcripts of
+     * its games. Returns once all games are written; until then, the job waits for workers. The
+     * server socket is closed at the end.
+     *
+     * @param server The bound server socket.
+     * @param output The transcript file. An existing file is replaced.
+     * @return The summary of the job.
+     * @throws IOException If the output cannot be written.
+     * @throws InterruptedException If interrupted while waiting for the workers.
+     */
+    public SelfPlaySummary run(final ServerSocket server, final Path output) throws IOException, InterruptedException {
+        for (int batch = 0; batch < job.getBatchCount(); batch++) {
+            pendingBatches.add(batch);
+        }
+        Thread acceptor = new Thread(() -> accept(server), "self-play-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+
+        long[] wins = new long[job.getPlayerAmount()];
+        long draws = 0;
+        long moves = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(output)) {
+            for (int batch = 0; batch < job.getBatchCount(); batch++) {
+                BatchResult result = awaitBatch(batch);
+                writer.write(result.transcripts);
+                for (int seat = 0; seat < wins.length; seat++) {
+                    wins[seat] += result.wins[seat];
+                }
+                draws += result.draws;
+                moves += result.moves;
+            }
+        } finally {
+            synchronized (this) {
+                closed = true;
+            }
+            server.close();
+            acceptor.join();
+            for (Thread connection : connections) {
+                connection.join();
+            }
+        }
+        synchronized (this) {
+            return new SelfPlaySummary(job.getGameCount(), wins, draws, moves, lostWorkers, requeuedBatches);
+        }
+    }
+
+    /**
+     * Accepts workers until the server socket is closed, serving each on its own thread.
+     *
+     * @param server The server socket.
+     */
+    private void accept(ServerSocket server) {
+        try {
+            while (true) {
+                Socket socket = server.accept();
+                synchronized (this) {
+                    Thread connection = new Thread(() -> serve(socket), "self-play-connection-" + connections.size());
+                    connection.setDaemon(true);
+                    connections.add(connection);
+                    connection.start();
+                }
+            }
+        } catch (IOException e) {
+            // The server socket was closed at the end of the job
+        }
+    }
+
+    /**
+     * Hands out batches to a worker and collects its results until the job is done or the worker
+     * is lost. The batches in flight are handed out again however the connection ends early, even
+     * on an unexpected exception, so that the job never waits for them.
+     *
+     * @param socket The connection to the worker.
+     */
+    private void serve(Socket socket) {
+        Deque<Integer> tasks = new ArrayDeque<>();
+        boolean finished = false;
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout(workerTimeoutMillis);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            ConnectSix game = job.createGame();
+            out.writeByte(SelfPlayProtocol.JOB);
+            job.write(out);
+            out.writeInt(Math.max(1, workerTimeoutMillis / 4));
+
+            while (!isDone()) {
+                while (tasks.size() < TASKS_PER_WORKER) {
+                    Integer batch = tasks.isEmpty()
+                            ? pendingBatches.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS) : pendingBatches.poll();
+                    if (batch == null) {
+                        break;
+                    }
+                    out.writeByte(SelfPlayProtocol.TASK);
+                    out.writeInt(batch);
+                    tasks.addLast(batch);
+                }
+                if (tasks.isEmpty()) {
+                    continue;
+                }
+                out.flush();
+
+                byte type = in.readByte();
+                if (type == SelfPlayProtocol.RESULT) {
+                    int batch = in.readInt();
+                    int length = in.readInt();
+                    if (batch != tasks.peekFirst() || length < 0 || length > maxPayloadBytes(batch)) {
+                        throw new IOException("Unexpected result of batch " + batch);
+                    }
+                    byte[] payload = new byte[length];
+                    in.readFully(payload);
+                    complete(batch, decode(batch, payload, game));
+                    tasks.removeFirst();
+                } else if (type != SelfPlayProtocol.HEARTBEAT) {
+                    throw new IOException("Unexpected message: " + type);
+                }
+            }
+            out.writeByte(SelfPlayProtocol.SHUTDOWN);
+            out.flush();
+            finished = true;
+        } catch (IOException e) {
+            // The worker is lost, its batches are handed out again below
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (!finished) {
+                requeue(tasks);
+            }
+        }
+    }
+
+    /**
+     * Checks if the job is done, either because all batches are completed or because the
+     * coordinator stopped.
+     *
+     * @return True if no more batches are handed out, false otherwise.
+     */
+    private synchronized boolean isDone() {
+        return closed || completedBatches == finishedBatches.length;
+    }
+
+    /**
+     * Waits until a batch is completed and releases its result.
+     *
+     * @param batch The index of the batch.
+     * @return The result of the batch.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    private synchronized BatchResult awaitBatch(int batch) throws InterruptedException {
+        while (finishedBatches[batch] == null) {
+            wait();
+        }
+        BatchResult result = finishedBatches[batch];
+        finishedBatches[batch] = BatchResult.WRITTEN;
+        return result;
+    }
+
+    /**
+     * Stores the result of a batch.
+     *
+     * @param batch The index of the batch.
+     * @param result The result.
+     */
+    private synchronized void complete(int batch, BatchResult result) {
+        if (finishedBatches[batch] == null) {
+            finishedBatches[batch] = result;
+            completedBatches++;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Hands out the unfinished batches of a lost worker again, ahead of all other batches.
+     *
+     * @param tasks The batches in flight at the worker, in the order they were handed out.
+     */
+    private synchronized void requeue(Deque<Integer> tasks) {
+        if (closed || completedBatches == finishedBatches.length) {
+            return;
+        }
+        lostWorkers++;
+        requeuedBatches += tasks.size();
+        for (Iterator<Integer> batches = tasks.descendingIterator(); batches.hasNext();) {
+            pendingBatches.addFirst(batches.next());
+        }
+    }
+
+    /**
+     * Returns the largest valid payload of a batch, with every game filling the board.
+     *
+     * @param batch The index of the batch.
+     * @return The maximum payload length in bytes.
+     */
+    private int maxPayloadBytes(int batch) {
+        long games = job.getBatchStart(batch + 1) - job.getBatchStart(batch);
+        return (int) Math.min(Integer.MAX_VALUE, games * (GAME_HEADER_BYTES + 2L * job.getRules().getCellCount()));
+    }
+
+    /**
+     * Converts the payload of a batch into transcripts and counts. Every game is replayed, so a
+     * result is only accepted if all its moves follow the rules and the game ends with the reported
+     * winner or draw after its last move.
+     *
+     * @param batch The index of the batch.
+     * @param payload The payload as sent by the worker.
+     * @param game The game to replay on.
+     * @return The result of the batch.
+     * @throws IOException If the payload is invalid.
+     */
+    private BatchResult decode(int batch, byte[] payload, ConnectSix game) throws IOException {
+        BatchResult result = new BatchResult(job.getPlayerAmount());
+        StringBuilder transcripts = new StringBuilder();
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        int cellCount = job.getRules().getCellCount();
+        try {
+            for (int index = job.getBatchStart(batch); index < job.getBatchStart(batch + 1); index++) {
+                byte winner = buffer.get();
+                if (winner != SelfPlayProtocol.DRAW && (winner < 0 || winner >= result.wins.length)) {
+                    throw new IOException("Invalid winner in batch " + batch);
+                }
+                int tokens = buffer.getShort();
+                if (tokens < 0 || tokens > cellCount) {
+                    throw new IOException("Invalid token count in batch " + batch);
+                }
+                int[] cells = new int[tokens];
+                for (int token = 0; token < cells.length; token++) {
+                    cells[token] = buffer.getShort();
+                    if (cells[token] < 0 || cells[token] >= cellCount) {
+                        throw new IOException("Invalid cell in batch " + batch);
+                    }
+                }
+                GameRecord record = new GameRecord(job.getBoardType(), job.getRules(), job.getPlayerAmount(), cells);
+                if (!replays(record, winner, game)) {
+                    throw new IOException("Invalid game in batch " + batch);
+                }
+                transcripts.append(record).append(System.lineSeparator());
+                if (winner == SelfPlayProtocol.DRAW) {
+                    result.draws++;
+                } else {
+                    result.wins[winner]++;
+                }
+                result.moves += record.getMoveCount();
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Invalid result of batch " + batch, e);
+        }
+        if (buffer.hasRemaining()) {
+            throw new IOException("Invalid result of batch " + batch);
+        }
+        result.transcripts = transcripts.toString();
+        return result;
+    }
+
+    /**
+     * Replays a game and checks that it ends as reported.
+     *
+     * @param record The record of the game.
+     * @param winner The reported result byte.
+     * @param game The game to replay on. It is reset first.
+     * @return True if every move is valid and the game ends with the reported result, false otherwise.
+     */
+    private static boolean replays(GameRecord record, byte winner, ConnectSix game) {
+        game.resetGame();
+        try {
+            for (int move = 0; move < record.getMoveCount(); move++) {
+                record.playMove(game, move);
+            }
+        } catch (InvalidInputException e) {
+            return false;
+        }
+        if (winner == SelfPlayProtocol.DRAW) {
+            return game.getCurrentGameState() == GameState.DRAW;
+        }
+        return game.getCurrentGameState() == GameState.WON && game.getCurrentPlayer().getPlayerID() == winner;
+    }
+
+    /**
+     * The transcripts and counts of a completed batch.
+     */
+    private static final class BatchResult {
+        private static final BatchResult WRITTEN = new BatchResult(0);
+
+        private final long[] wins;
+        private long draws;
+        private long moves;
+        private String transcripts;
+
+        /**
+         * Creates an empty result.
+         *
+         * @param playerAmount The number of players.
+         */
+        private BatchResult(int playerAmount) {
+            this.wins = new long[playerAmount];
+        }
+    }
+
+    /**
+     * Summary of a finished self-play job.
+     */
+    public static final class SelfPlaySummary {
+        private final long games;
+        private final long[] wins;
+        private final long draws;
+        private final long moves;
+        private final int lostWorkers;
+        private final int requeuedBatches;
+
+        /**
+         * Creates a summary.
+         *
+         * @param games The number of games.
+         * @param wins The number of wins per seat.
+         * @param draws The number of draws.
+         * @param moves The number of moves of all games.
+         * @param lostWorkers The number of lost workers.
+         * @param requeuedBatches The number of batches handed out again.
+         */
+        private SelfPlaySummary(long games, long[] wins, long draws, long moves, int lostWorkers,
+                int requeuedBatches) {
+            this.games = games;
+            this.wins = wins;
+            this.draws = draws;
+            this.moves = moves;
+            this.lostWorkers = lostWorkers;
+            this.requeuedBatches = requeuedBatches;
+        }
+
+        /**
+         * Returns the number of games.
+         *
+         * @return The game count.
+         */
+        public long getGames() {
+            return games;
+        }
+
+        /**
+         * Returns the number of games won by a seat.
+         *
+         * @param seat The seat.
+         * @return The win count, 0 for seats not taking part.
+         */
+        public long getWins(final Player seat) {
+            return seat.getPlayerID() < wins.length ? wins[seat.getPlayerID()] : 0;
+        }
+
+        /**
+         * Returns the number of drawn games.
+         *
+         * @return The draw count.
+         */
+        public long getDraws() {
+            return draws;
+        }
+
+        /**
+         * Returns the average number of moves per game.
+         *
+         * @return The average game length.
+         */
+        public double getAverageLength() {
+            return (double) moves / games;
+        }
+
+        /**
+         * Returns the number of workers that were lost during the job.
+         *
+         * @return The lost worker count.
+         */
+        public int getLostWorkers() {
+            return lostWorkers;
+        }
+
+        /**
+         * Returns the number of batches that were handed out again after their worker was lost.
+         *
+         * @return The requeued batch count.
+         */
+        public int getRequeuedBatches() {
+            return requeuedBatches;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder summary = new StringBuilder().append(games).append(" games, wins");
+            for (long seatWins : wins) {
+                summary.append(' ').append(seatWins);
+            }
+            return summary.append(String.format(", %d draws, %.1f moves per game, %d lost workers, %d requeued batches",
+                    draws, getAverageLength(), lostWorkers, requeuedBatches)).toString();
+        }
+    }
+}
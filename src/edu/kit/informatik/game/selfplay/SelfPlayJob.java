@@ -0,0 +1,164 @@
+package edu.kit.informatik.game.selfplay;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Objects;
+
+import edu.kit.informatik.InvalidInputException;
+import edu.kit.informatik.game.logic.ConnectSix;
+import edu.kit.informatik.game.logic.GameInitializer;
+import edu.kit.informatik.game.logic.GameRules;
+
+/**
+ * A self-play run: a number of random games of one configuration, split into batches.
+ * <p>
+ * Every game is played from its own seed, the seed of the job plus the index of the game, so the
+ * result of a game does not depend on the worker playing it or on the order in which batches are
+ * handed out.
+ * </p>
+ */
+public final class SelfPlayJob {
+    private final String boardType;
+    private final GameRules rules;
+    private final int playerAmount;
+    private final long seed;
+    private final int gameCount;
+    private final int batchSize;
+
+    /**
+     * Creates a self-play job.
+     *
+     * @param boardType The game mode, "standard" or "torus".
+     * @param rules The rules of the games.
+     * @param playerAmount The number of players.
+     * @param seed The seed of the first game.
+     * @param gameCount The number of games.
+     * @param batchSize The number of games handed to a worker at once.
+     * @throws InvalidInputException If the game configuration is invalid.
+     * @throws IllegalArgumentException If the game count or batch size is not positive.
+     */
+    public SelfPlayJob(final String boardType, final GameRules rules, final int playerAmount, final long seed,
+            final int gameCount, final int batchSize) throws InvalidInputException {
+        if (gameCount <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("Invalid self-play job: " + gameCount + ", " + batchSize);
+        }
+        GameInitializer.initializeGame(boardType, rules, playerAmount);
+        this.boardType = Objects.requireNonNull(boardType);
+        this.rules = rules;
+        this.playerAmount = playerAmount;
+        this.seed = seed;
+        this.gameCount = gameCount;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Reads a job as sent by {@link #write(DataOutputStream)}.
+     *
+     * @param in The input stream.
+     * @return The job.
+     * @throws IOException If reading fails or the job is invalid.
+     */
+    static SelfPlayJob read(DataInputStream in) throws IOException {
+        try {
+            return new SelfPlayJob(in.readUTF(), GameRules.parse(in.readUTF()), in.readByte(), in.readLong(),
+                    in.readInt(), in.readInt());
+        } catch (InvalidInputException | IllegalArgumentException e) {
+            throw new IOException("Invalid self-play job", e);
+        }
+    }
+
+    /**
+     * Writes the job to a stream.
+     *
+     * @param out The output stream.
+     * @throws IOException If writing fails.
+     */
+    void write(DataOutputStream out) throws IOException {
+        out.writeUTF(boardType);
+        out.writeUTF(rules.toString());
+        out.writeByte(playerAmount);
+        out.writeLong(seed);
+        out.writeInt(gameCount);
+        out.writeInt(batchSize);
+    }
+
+    /**
+     * Creates a game to play or replay the job's games on.
+     *
+     * @return A new game of the job's configuration.
+     * @throws IOException If the configuration is invalid.
+     */
+    ConnectSix createGame() throws IOException {
+        try {
+            return GameInitializer.initializeGame(boardType, rules, playerAmount);
+        } catch (InvalidInputException e) {
+            throw new IOException("Invalid self-play job", e);
+        }
+    }
+
+    /**
+     * Returns the board type.
+     *
+     * @return The game mode, "standard" or "torus".
+     */
+    public String getBoardType() {
+        return boardType;
+    }
+
+    /**
+     * Returns the rules of the games.
+     *
+     * @return The game rules.
+     */
+    public GameRules getRules() {
+        return rules;
+    }
+
+    /**
+     * Returns the number of players.
+     *
+     * @return The player amount.
+     */
+    public int getPlayerAmount() {
+        return playerAmount;
+    }
+
+    /**
+     * Returns the number of games.
+     *
+     * @return The game count.
+     */
+    public int getGameCount() {
+        return gameCount;
+    }
+
+    /**
+     * Returns the number of batches.
+     *
+     * @return The batch count.
+     */
+    public int getBatchCount() {
+        return (gameCount - 1) / batchSize + 1;
+    }
+
+    /**
+     * Returns the index of the first game of a batch.
+     *
+     * @param batch The index of the batch, or the batch count for the end of the job.
+     * @return The index of the batch's first game.
+     */
+    public int getBatchStart(final int batch) {
+        return (int) Math.min((long) batch * batchSize, gameCount);
+    }
+
+    /**
+     * Returns the seed of a game.
+     *
+     * @param game The index of the game.
+     * @return The seed.
+     */
+    public long getGameSeed(final int game) {
+        return seed + game;
+    }
+}
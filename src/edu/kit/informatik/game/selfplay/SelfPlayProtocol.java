@@ -0,0 +1,55 @@
+package edu.kit.informatik.game.selfplay;
+
+/**
+ * Message types exchanged between the self-play coordinator and its workers.
+ * <p>
+ * Every message starts with its type byte. The coordinator sends {@link #JOB} once after a worker
+ * connects, then {@link #TASK} messages and finally {@link #SHUTDOWN}. A worker answers every task
+ * with a {@link #RESULT} and sends {@link #HEARTBEAT}s while it plays a batch.
+ * </p>
+ */
+final class SelfPlayProtocol {
+    /**
+     * The job description, followed by the heartbeat interval in milliseconds as {@code int}.
+     */
+    static final byte JOB = 1;
+
+    /**
+     * A batch to play: the batch index as {@code int}.
+     */
+    static final byte TASK = 2;
+
+    /**
+     * The games of a batch: the batch index and the payload length as {@code int}, then for every
+     * game the result byte (ID of the winner, or -1 for a draw), the token count as {@code short}
+     * and the cell of every token as {@code short}.
+     */
+    static final byte RESULT = 3;
+
+    /**
+     * A sign of life of a busy worker.
+     */
+    static final byte HEARTBEAT = 4;
+
+    /**
+     * The end of the job.
+     */
+    static final byte SHUTDOWN = 5;
+
+    /**
+     * Result byte of a drawn game.
+     */
+    static final byte DRAW = -1;
+
+    /**
+     * The largest valid port of the coordinator.
+     */
+    static final int MAX_PORT = 0xFFFF;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private SelfPlayProtocol() {
+        throw new AssertionError("Utility class constructor.");
+    }
+}
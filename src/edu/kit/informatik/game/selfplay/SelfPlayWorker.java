@@ -0,0 +1,183 @@
+package edu.kit.informatik.game.selfplay;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import edu.kit.informatik.InvalidInputException;
+import edu.kit.informatik.game.logic.ConnectSix;
+import edu.kit.informatik.game.logic.GameRules;
+import edu.kit.informatik.game.logic.GameState;
+
+/**
+ * Worker process of a distributed self-play run.
+ * <p>
+ * A worker connects to a {@link SelfPlayCoordinator}, receives the job and then plays the batches
+ * it is handed out. Players place their tokens on uniformly random empty cells. The games of a
+ * batch are played one after another on a single reused {@link ConnectSix} game and sent back
+ * together as the cells of all placed tokens. The worker exits when the coordinator ends the job
+ * or the connection is lost.
+ * </p>
+ *
+ * <p>
+ * Usage: {@code java edu.kit.informatik.game.selfplay.SelfPlayWorker <port> [host]}
+ * </p>
+ */
+public class SelfPlayWorker {
+    private final String host;
+    private final int port;
+    private final ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream();
+    private final DataOutputStream payload = new DataOutputStream(payloadBytes);
+    private long lastMessage;
+    private long heartbeatNanos;
+    private long games;
+
+    /**
+     * Creates a worker.
+     *
+     * @param host The host of the coordinator.
+     * @param port The port of the coordinator.
+     */
+    public SelfPlayWorker(final String host, final int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    /**
+     * Connects to a coordinator and plays until the job ends.
+     *
+     * @param args The port of the coordinator and optionally its host, by default the loopback address.
+     */
+    public static void main(final String[] args) {
+        if (args.length == 0 || args.length > 2) {
+            System.out.println("Error, usage: SelfPlayWorker <port> [host]");
+            return;
+        }
+        String host = args.length == 2 ? args[1] : InetAddress.getLoopbackAddress().getHostAddress();
+        int port;
+        try {
+            port = Integer.parseInt(args[0]);
+        } catch (NumberFormatException e) {
+            System.out.println("Error, invalid port: " + args[0]);
+            return;
+        }
+        if (port <= 0 || port > SelfPlayProtocol.MAX_PORT) {
+            System.out.println("Error, invalid port: " + port);
+            return;
+        }
+        try {
+            new SelfPlayWorker(host, port).run();
+        } catch (IOException e) {
+            System.out.println("Error, connection to the coordinator failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Connects to the coordinator and plays the batches it hands out until it ends the job.
+     *
+     * @return The number of games played.
+     * @throws IOException If the connection fails or is lost.
+     */
+    public long run() throws IOException {
+        try (Socket socket = new Socket(host, port)) {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            if (in.readByte() != SelfPlayProtocol.JOB) {
+                throw new IOException("Expected a self-play job");
+            }
+            SelfPlayJob job = SelfPlayJob.read(in);
+            heartbeatNanos = TimeUnit.MILLISECONDS.toNanos(in.readInt());
+            ConnectSix game = job.createGame();
+
+            for (byte type = in.readByte(); type != SelfPlayProtocol.SHUTDOWN; type = in.readByte()) {
+                if (type != SelfPlayProtocol.TASK) {
+                    throw new IOException("Unexpected message: " + type);
+                }
+                int batch = in.readInt();
+                lastMessage = System.nanoTime();
+                playBatch(job, batch, game, out);
+                out.writeByte(SelfPlayProtocol.RESULT);
+                out.writeInt(batch);
+                out.writeInt(payloadBytes.size());
+                payloadBytes.writeTo(out);
+                out.flush();
+            }
+        }
+        return games;
+    }
+
+    /**
+     * Plays all games of a batch into the payload buffer, sending heartbeats in between.
+     *
+     * @param job The job.
+     * @param batch The index of the batch.
+     * @param game The game to play on.
+     * @param out The stream to the coordinator.
+     * @throws IOException If sending a heartbeat fails.
+     */
+    private void playBatch(SelfPlayJob job, int batch, ConnectSix game, DataOutputStream out) throws IOException {
+        payloadBytes.reset();
+        int[] emptyCells = new int[job.getRules().getCellCount()];
+        for (int index = job.getBatchStart(batch); index < job.getBatchStart(batch + 1); index++) {
+            game.resetGame();
+            playGame(game, new SplittableRandom(job.getGameSeed(index)), emptyCells);
+
+            payload.writeByte(game.getCurrentGameState() == GameState.WON
+                    ? game.getCurrentPlayer().getPlayerID() : SelfPlayProtocol.DRAW);
+            payload.writeShort(game.getPlacedCount());
+            for (int token = 0; token < game.getPlacedCount(); token++) {
+                payload.writeShort(game.getPlacedCell(token));
+            }
+            games++;
+
+            long now = System.nanoTime();
+            if (now - lastMessage >= heartbeatNanos) {
+                out.writeByte(SelfPlayProtocol.HEARTBEAT);
+                out.flush();
+                lastMessage = now;
+            }
+        }
+    }
+
+    /**
+     * Plays a game to its end with tokens on random empty cells.
+     *
+     * @param game A new game.
+     * @param random The source of the moves.
+     * @param emptyCells Space for the indices of all cells.
+     */
+    private static void playGame(ConnectSix game, SplittableRandom random, int[] emptyCells) {
+        GameRules rules = game.getRules();
+        int columns = rules.getColumns();
+        int empty = emptyCells.length;
+        for (int cell = 0; cell < empty; cell++) {
+            emptyCells[cell] = cell;
+        }
+
+        while (game.getCurrentGameState() == GameState.RUNNING) {
+            int stones = rules.getStonesForTurn(game.getGameCounter(), game.getPlacedCount());
+            int[] rows = new int[stones];
+            int[] tokenColumns = new int[stones];
+            for (int stone = 0; stone < stones; stone++) {
+                int pick = random.nextInt(empty);
+                int cell = emptyCells[pick];
+                emptyCells[pick] = emptyCells[--empty];
+                rows[stone] = cell / columns;
+                tokenColumns[stone] = cell % columns;
+            }
+            try {
+                game.placeTokens(rows, tokenColumns);
+            } catch (InvalidInputException e) {
+                throw new IllegalStateException("Random move rejected: " + e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package edu.kit.informatik.game.session;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import edu.kit.informatik.InvalidInputException;
+import edu.kit.informatik.game.Player;
+import edu.kit.informatik.game.logic.ConnectSix;
+import edu.kit.informatik.game.logic.GameInitializer;
+import edu.kit.informatik.game.logic.GameRules;
+
+/**
+ * Store for many long-running game sessions, most of which are idle.
+ * <p>
+ * Only recently used sessions are kept as live {@link ConnectSix} games. Idle sessions are evicted
+ * into off-heap memory as a compact record of their configuration and move list, two bytes per
+ * token, and use no heap objects at all. The next {@link #acquire(int)} rehydrates an evicted session
+ * by replaying its moves and forfeits, which restores the board, current player, game counter and
+ * game state. Event subscribers of a game do not survive its eviction.
+ * </p>
+ *
+ * <p>
+ * Sessions are addressed by {@code int} IDs; IDs of closed sessions are reused. The store is
+ * thread-safe, but an acquired game must only be used by one thread until it is released.
+ * </p>
+ */
+public class SessionStore {
+    private static final String[] BOARD_TYPES = {"standard", "torus"};
+    private static final int FORFEITS_OFFSET = 15;
+    private static final int HEADER_BYTES = FORFEITS_OFFSET + 1 + 2 * Player.getMaxAmountOfPlayers();
+    private static final int TOKEN_BYTES = 2;
+    private static final int LIVE = -1;
+    private static final int CLOSED = -2;
+
+    private final SlabAllocator allocator = new SlabAllocator();
+    private final Map<Integer, LiveSession> liveSessions = new LinkedHashMap<>(16, 0.75f, true);
+    private int[] handles = new int[16];
+    private int sessionCount;
+    private int[] freeIds = new int[16];
+    private int freeIdCount;
+    private int nextId;
+
+    /**
+     * Creates a new session with a running game.
+     *
+     * @param gameType The game mode, "standard" or "torus".
+     * @param boardSize The size of the board.
+     * @param playerAmount The number of players.
+     * @return The ID of the new session.
+     * @throws InvalidInputException If the game configuration is invalid.
+     */
+    public synchronized int create(final String gameType, final int boardSize, final int playerAmount)
+            throws InvalidInputException {
+        return add(GameInitializer.initializeGame(gameType, boardSize, playerAmount));
+    }
+
+    /**
+     * Creates a new session with a running game of a Connect(m,n,k,p,q) variant.
+     *
+     * @param gameType The game mode, "standard" or "torus".
+     * @param rules The rules of the variant.
+     * @param playerAmount The number of players.
+     * @return The ID of the new session.
+     * @throws InvalidInputException If the game configuration is invalid.
+     */
+    public synchronized int create(final String gameType, final GameRules rules, final int playerAmount)
+            throws InvalidInputException {
+        return add(GameInitializer.initializeGame(gameType, rules, playerAmount));
+    }
+
+    /**
+     * Returns the game of a session for exclusive use, rehydrating it if it was evicted. The game
+     * is not evicted until it is handed back with {@link #release(int)}.
+     *
+     * @param sessionId The ID of the session.
+     * @return The live game.
+     * @throws InvalidInputException If no session with this ID exists.
+     * @throws IllegalStateException If the session is already acquired.
+     */
+    public synchronized ConnectSix acquire(final int sessionId) throws InvalidInputException {
+        int handle = handle(sessionId);
+        LiveSession session = handle == LIVE ? liveSessions.get(sessionId) : rehydrate(sessionId, handle);
+        if (session.acquired) {
+            throw new IllegalStateException("Session already acquired: " + sessionId);
+        }
+        session.acquired = true;
+        session.lastAccess = System.nanoTime();
+        return session.game;
+    }
+
+    /**
+     * Hands back the game of a session after use and starts its inactivity period.
+     *
+     * @param sessionId The ID of the session.
+     * @throws InvalidInputException If no session with this ID exists.
+     */
+    public synchronized void release(final int sessionId) throws InvalidInputException {
+        if (handle(sessionId) == LIVE) {
+            LiveSession session = liveSessions.get(sessionId);
+            session.acquired = false;
+            session.lastAccess = System.nanoTime();
+        }
+    }
+
+    /**
+     * Closes a session and frees its memory. The ID may be reused by a later session.
+     *
+     * @param sessionId The ID of the session.
+     * @throws InvalidInputException If no session with this ID exists.
+     */
+    public synchronized void close(final int sessionId) throws InvalidInputException {
+        int handle = handle(sessionId);
+        if (handle == LIVE) {
+            liveSessions.remove(sessionId);
+        } else {
+            allocator.free(handle);
+        }
+        handles[sessionId] = CLOSED;
+        if (freeIdCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, 2 * freeIdCount);
+        }
+        freeIds[freeIdCount++] = sessionId;
+        sessionCount--;
+    }
+
+    /**
+     * Evicts all released sessions that have not been used for the given time.
+     *
+     * @param maxIdleMillis The inactivity period in milliseconds.
+     * @return The number of evicted sessions.
+     */
+    public synchronized int evictIdle(final long maxIdleMillis) {
+        long cutoff = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(maxIdleMillis);
+        int evicted = 0;
+        // Live sessions are ordered by last access, the oldest first
+        Iterator<Map.Entry<Integer, LiveSession>> iterator = liveSessions.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, LiveSession> entry = iterator.next();
+            LiveSession session = entry.getValue();
+            if (session.lastAccess - cutoff > 0) {
+                break;
+            }
+            if (!session.acquired) {
+                handles[entry.getKey()] = store(session.game);
+                iterator.remove();
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Evicts a single released session into off-heap memory.
+     *
+     * @param sessionId The ID of the session.
+     * @return True if the session was evicted, false if it was already evicted or is acquired.
+     * @throws InvalidInputException If no session with this ID exists.
+     */
+    public synchronized boolean evict(final int sessionId) throws InvalidInputException {
+        if (handle(sessionId) != LIVE || liveSessions.get(sessionId).acquired) {
+            return false;
+        }
+        handles[sessionId] = store(liveSessions.remove(sessionId).game);
+        return true;
+    }
+
+    /**
+     * Returns the number of open sessions.
+     *
+     * @return The session count.
+     */
+    public synchronized int getSessionCount() {
+        return sessionCount;
+    }
+
+    /**
+     * Returns the number of sessions held as live games.
+     *
+     * @return The live session count.
+     */
+    public synchronized int getLiveCount() {
+        return liveSessions.size();
+    }
+
+    /**
+     * Returns the amount of off-heap memory reserved for evicted sessions.
+     *
+     * @return The reserved memory in bytes.
+     */
+    public synchronized long getOffHeapBytes() {
+        return allocator.getReservedBytes();
+    }
+
+    /**
+     * Registers a new live game under a free session ID.
+     *
+     * @param game The game.
+     * @return The ID of the new session.
+     */
+    private int add(ConnectSix game) {
+        int id;
+        if (freeIdCount > 0) {
+            id = freeIds[--freeIdCount];
+        } else {
+            id = nextId++;
+            if (id == handles.length) {
+                handles = Arrays.copyOf(handles, 2 * id);
+            }
+        }
+        handles[id] = LIVE;
+        liveSessions.put(id, new LiveSession(game));
+        sessionCount++;
+        return id;
+    }
+
+    /**
+     * Returns the handle of an open session.
+     *
+     * @param sessionId The ID of the session.
+     * @return The handle of the stored record, or {@link #LIVE}.
+     * @throws InvalidInputException If no session with this ID exists.
+     */
+    private int handle(int sessionId) throws InvalidInputException {
+        if (sessionId < 0 || sessionId >= nextId || handles[sessionId] == CLOSED) {
+            throw new InvalidInputException("unknown session: " + sessionId);
+        }
+        return handles[sessionId];
+    }
+
+    /**
+     * Writes a game into off-heap memory. The record consists of the board type, rows, columns, win
+     * length, player amount and token count, the tokens per turn, a bit mask of the players who
+     * forfeited and the turn of every forfeit, and the cells of all placed tokens.
+     *
+     * @param game The game to store.
+     * @return The handle of the record.
+     */
+    private int store(ConnectSix game) {
+        GameRules rules = game.getRules();
+        int tokens = game.getPlacedCount();
+        int handle = allocator.allocate(HEADER_BYTES + TOKEN_BYTES * tokens);
+        ByteBuffer slab = allocator.slab(handle);
+        int offset = allocator.offset(handle);
+
+        slab.put(offset, (byte) Arrays.asList(BOARD_TYPES).indexOf(game.getBoardType()));
+        slab.put(offset + 1, (byte) rules.getRows());
+        slab.put(offset + 2, (byte) rules.getColumns());
+        slab.put(offset + 3, (byte) rules.getWinLength());
+        slab.put(offset + 4, (byte) game.getPlayerAmount());
+        slab.putShort(offset + 5, (short) tokens);
+        slab.putInt(offset + 7, rules.getFirstTurnStones());
+        slab.putInt(offset + 11, rules.getStonesPerTurn());
+        int forfeits = 0;
+        for (Player player : Player.values()) {
+            if (game.hasForfeited(player)) {
+                forfeits |= 1 << player.getPlayerID();
+            }
+            slab.putShort(offset + FORFEITS_OFFSET + 1 + 2 * player.getPlayerID(),
+                    (short) game.getForfeitTurn(player));
+        }
+        slab.put(offset + FORFEITS_OFFSET, (byte) forfeits);
+        for (int i = 0; i < tokens; i++) {
+            slab.putShort(offset + HEADER_BYTES + TOKEN_BYTES * i, (short) game.getPlacedCell(i));
+        }
+        return handle;
+    }
+
+    /**
+     * Restores an evicted session as a live game and frees its record.
+     *
+     * @param sessionId The ID of the session.
+     * @param handle The handle of the session's record.
+     * @return The live session.
+     * @throws InvalidInputException If the record cannot be replayed.
+     */
+    private LiveSession rehydrate(int sessionId, int handle) throws InvalidInputException {
+        ByteBuffer slab = allocator.slab(handle);
+        int offset = allocator.offset(handle);
+        GameRules rules = GameRules.of(slab.get(offset + 1), slab.get(offset + 2), slab.get(offset + 3),
+                slab.getInt(offset + 7), slab.getInt(offset + 11));
+        ConnectSix game = GameInitializer.initializeGame(BOARD_TYPES[slab.get(offset)], rules, slab.get(offset + 4));
+
+        int tokens = slab.getShort(offset + 5);
+        int forfeits = slab.get(offset + FORFEITS_OFFSET);
+        int columns = rules.getColumns();
+        for (int placed = 0; placed < tokens;) {
+            replayForfeits(game, slab, offset, forfeits);
+            int stones = rules.getStonesForTurn(game.getGameCounter(), placed);
+            int[] tokenRows = new int[stones];
+            int[] tokenColumns = new int[stones];
+            for (int stone = 0; stone < stones; stone++) {
+                int cell = slab.getShort(offset + HEADER_BYTES + TOKEN_BYTES * placed++);
+                tokenRows[stone] = cell / columns;
+                tokenColumns[stone] = cell % columns;
+            }
+            game.placeTokens(tokenRows, tokenColumns);
+        }
+        replayForfeits(game, slab, offset, forfeits);
+
+        allocator.free(handle);
+        handles[sessionId] = LIVE;
+        LiveSession session = new LiveSession(game);
+        liveSessions.put(sessionId, session);
+        return session;
+    }
+
+    /**
+     * Makes the players of a record forfeit who forfeited in the current turn of the replayed game.
+     *
+     * @param game The replayed game.
+     * @param slab The slab of the record.
+     * @param offset The offset of the record in the slab.
+     * @param forfeits The bit mask of the players who forfeited.
+     */
+    private static void replayForfeits(ConnectSix game, ByteBuffer slab, int offset, int forfeits) {
+        for (int remaining = forfeits; remaining != 0; remaining &= remaining - 1) {
+            int id = Integer.numberOfTrailingZeros(remaining);
+            Player player = Player.getPlayerByID(id);
+            if (!game.hasForfeited(player)
+                    && slab.getShort(offset + FORFEITS_OFFSET + 1 + 2 * id) == game.getGameCounter()) {
+                game.forfeit(player);
+            }
+        }
+    }
+
+    /**
+     * A session held as a live game.
+     */
+    private static final class LiveSession {
+        private final ConnectSix game;
+        private boolean acquired;
+        private long lastAccess = System.nanoTime();
+
+        /**
+         * Creates a live session.
+         *
+         * @param game The game of the session.
+         */
+        private LiveSession(ConnectSix game) {
+            this.game = game;
+        }
+    }
+}
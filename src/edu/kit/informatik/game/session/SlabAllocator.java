@@ -0,0 +1,135 @@
+package edu.kit.informatik.game.session;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Allocator for small records in off-heap memory.
+ * <p>
+ * Memory is reserved in direct buffers (slabs) and divided into slots of power-of-two sizes. A record
+ * is placed in the smallest slot size that fits and addressed by an {@code int} handle, which encodes
+ * the size class and the slot number. Freed slots are reused by later records of the same size class.
+ * The allocator is not thread-safe.
+ * </p>
+ */
+final class SlabAllocator {
+    private static final int MIN_SLOT_SHIFT = 4;
+    private static final int MAX_SLOT_SHIFT = 20;
+    private static final int SLAB_BYTES = 1 << 20;
+    private static final int SLOT_BITS = 26;
+    private static final int SLOT_MASK = (1 << SLOT_BITS) - 1;
+    private static final int CLASS_COUNT = MAX_SLOT_SHIFT - MIN_SLOT_SHIFT + 1;
+
+    private final List<List<ByteBuffer>> slabs = new ArrayList<>(CLASS_COUNT);
+    private final int[][] freeSlots = new int[CLASS_COUNT][];
+    private final int[] freeCounts = new int[CLASS_COUNT];
+    private final int[] usedSlots = new int[CLASS_COUNT];
+    private long reservedBytes;
+
+    /**
+     * Creates an allocator without any reserved memory.
+     */
+    SlabAllocator() {
+        for (int sizeClass = 0; sizeClass < CLASS_COUNT; sizeClass++) {
+            slabs.add(new ArrayList<>());
+            freeSlots[sizeClass] = new int[16];
+        }
+    }
+
+    /**
+     * Allocates a slot for a record.
+     *
+     * @param bytes The size of the record in bytes.
+     * @return The handle of the slot.
+     * @throws IllegalArgumentException If the record is larger than the largest slot size.
+     */
+    int allocate(int bytes) {
+        int shift = Math.max(MIN_SLOT_SHIFT, 32 - Integer.numberOfLeadingZeros(Math.max(bytes, 1) - 1));
+        if (shift > MAX_SLOT_SHIFT) {
+            throw new IllegalArgumentException("Record too large: " + bytes);
+        }
+        int sizeClass = shift - MIN_SLOT_SHIFT;
+        if (freeCounts[sizeClass] > 0) {
+            return handle(sizeClass, freeSlots[sizeClass][--freeCounts[sizeClass]]);
+        }
+
+        int slot = usedSlots[sizeClass]++;
+        if (slot > SLOT_MASK) {
+            throw new IllegalStateException("Size class exhausted: " + (1 << shift));
+        }
+        if (slot % slotsPerSlab(sizeClass) == 0) {
+            int slabBytes = Math.max(SLAB_BYTES, 1 << shift);
+            slabs.get(sizeClass).add(ByteBuffer.allocateDirect(slabBytes).order(ByteOrder.nativeOrder()));
+            reservedBytes += slabBytes;
+        }
+        return handle(sizeClass, slot);
+    }
+
+    /**
+     * Frees a slot. The handle must not be used afterwards.
+     *
+     * @param handle The handle of the slot.
+     */
+    void free(int handle) {
+        int sizeClass = handle >>> SLOT_BITS;
+        if (freeCounts[sizeClass] == freeSlots[sizeClass].length) {
+            freeSlots[sizeClass] = Arrays.copyOf(freeSlots[sizeClass], 2 * freeCounts[sizeClass]);
+        }
+        freeSlots[sizeClass][freeCounts[sizeClass]++] = handle & SLOT_MASK;
+    }
+
+    /**
+     * Returns the slab containing a slot. Slabs must be accessed with absolute positions only.
+     *
+     * @param handle The handle of the slot.
+     * @return The slab.
+     */
+    ByteBuffer slab(int handle) {
+        int sizeClass = handle >>> SLOT_BITS;
+        return slabs.get(sizeClass).get((handle & SLOT_MASK) / slotsPerSlab(sizeClass));
+    }
+
+    /**
+     * Returns the position of a slot within its slab.
+     *
+     * @param handle The handle of the slot.
+     * @return The offset of the slot's first byte.
+     */
+    int offset(int handle) {
+        int sizeClass = handle >>> SLOT_BITS;
+        return (handle & SLOT_MASK) % slotsPerSlab(sizeClass) << (sizeClass + MIN_SLOT_SHIFT);
+    }
+
+    /**
+     * Returns the amount of off-heap memory reserved by this allocator.
+     *
+     * @return The reserved memory in bytes.
+     */
+    long getReservedBytes() {
+        return reservedBytes;
+    }
+
+    /**
+     * Returns the number of slots per slab of a size class.
+     *
+     * @param sizeClass The size class.
+     * @return The number of slots.
+     */
+    private static int slotsPerSlab(int sizeClass) {
+        return Math.max(1, SLAB_BYTES >> (sizeClass + MIN_SLOT_SHIFT));
+    }
+
+    /**
+     * Builds the handle of a slot.
+     *
+     * @param sizeClass The size class.
+     * @param slot The number of the slot within its size class.
+     * @return The handle.
+     */
+    private static int handle(int sizeClass, int slot) {
+        return sizeClass << SLOT_BITS | slot;
+    }
+}
@@ -0,0 +1,128 @@
+package edu.kit.informatik.game.solver;
+
+/**
+ * Bounded transposition table of proof and disproof numbers.
+ * <p>
+ * Entries are addressed by the Zobrist hash of a position and stored in flat primitive arrays of a
+ * fixed power-of-two capacity, grouped into buckets of {@value #BUCKET_SIZE} slots. When a bucket is
+ * full, the entry with the least search work is replaced, so the memory used by the table never
+ * grows and expensive results survive longest.
+ * </p>
+ */
+public class NodeTable {
+    /**
+     * The default number of entries, about 4 MiB of memory.
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 18;
+    private static final int BUCKET_SIZE = 4;
+
+    private final long[] keys;
+    private final int[] phis;
+    private final int[] deltas;
+    private final int[] works;
+    private final int bucketMask;
+
+    /**
+     * Creates a new node table with the default capacity.
+     */
+    public NodeTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new node table.
+     *
+     * @param capacity The minimum number of entries, rounded up to a power of two of at least
+     *                 {@value #BUCKET_SIZE}.
+     * @throws IllegalArgumentException If the capacity is not positive or too large.
+     */
+    public NodeTable(final int capacity) {
+        if (capacity <= 0 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Invalid table capacity: " + capacity);
+        }
+        int size = Math.max(BUCKET_SIZE, Integer.highestOneBit(capacity));
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.keys = new long[size];
+        this.phis = new int[size];
+        this.deltas = new int[size];
+        this.works = new int[size];
+        this.bucketMask = size / BUCKET_SIZE - 1;
+    }
+
+    /**
+     * Stores the numbers of a position.
+     *
+     * @param key The hash of the position.
+     * @param phi The proof number for the side to move.
+     * @param delta The disproof number for the side to move.
+     * @param work The number of nodes searched to obtain the numbers.
+     */
+    void store(long key, int phi, int delta, long work) {
+        int slot = find(key);
+        if (slot < 0) {
+            int bucket = bucket(key);
+            slot = bucket;
+            for (int i = bucket + 1; i < bucket + BUCKET_SIZE; i++) {
+                if (works[i] < works[slot]) {
+                    slot = i;
+                }
+            }
+        }
+        keys[slot] = key;
+        phis[slot] = phi;
+        deltas[slot] = delta;
+        works[slot] = (int) Math.min(work, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the proof number of a position.
+     *
+     * @param key The hash of the position.
+     * @param defaultValue The value to return for unknown positions.
+     * @return The stored proof number, or the default value.
+     */
+    int phi(long key, int defaultValue) {
+        int slot = find(key);
+        return slot >= 0 ? phis[slot] : defaultValue;
+    }
+
+    /**
+     * Returns the disproof number of a position.
+     *
+     * @param key The hash of the position.
+     * @param defaultValue The value to return for unknown positions.
+     * @return The stored disproof number, or the default value.
+     */
+    int delta(long key, int defaultValue) {
+        int slot = find(key);
+        return slot >= 0 ? deltas[slot] : defaultValue;
+    }
+
+    /**
+     * Returns the slot of a stored position.
+     *
+     * @param key The hash of the position.
+     * @return The slot index, or -1 if the position is not stored.
+     */
+    private int find(long key) {
+        int bucket = bucket(key);
+        for (int i = bucket; i < bucket + BUCKET_SIZE; i++) {
+            if (keys[i] == key && works[i] > 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the first slot of the bucket of a position.
+     *
+     * @param key The hash of the position.
+     * @return The slot index.
+     */
+    private int bucket(long key) {
+        return ((int) (key ^ (key >>> 32)) & bucketMask) * BUCKET_SIZE;
+    }
+}
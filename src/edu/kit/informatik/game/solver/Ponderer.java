@@ -0,0 +1,128 @@
+package edu.kit.informatik.game.solver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.kit.informatik.InvalidInputException;
+import edu.kit.informatik.game.logic.ConnectSix;
+import edu.kit.informatik.game.logic.GameState;
+
+/**
+ * Searches in the background while the game waits for the next command.
+ * <p>
+ * Pondering predicts the replies of the player to move with {@link ThreatSolver#predictMoves()} and
+ * solves the position after each of them for the following player, with node budgets that double
+ * every round. All results go into the node table shared with the {@code solve} command, so once
+ * the actual move was played, a search of the resulting position continues from the pondered
+ * subtree. Pondering is stopped before every command, so the table is never used by two threads
+ * at the same time.
+ * </p>
+ */
+public class Ponderer {
+    private static final int MAX_PREDICTED_REPLIES = 24;
+    private static final long INITIAL_NODE_BUDGET = 1_000;
+
+    private final NodeTable table;
+    private Thread thread;
+    private volatile boolean stopped;
+    private volatile ThreatSolver activeSolver;
+
+    /**
+     * Creates a new ponderer.
+     *
+     * @param table The node table shared with the foreground searches.
+     */
+    public Ponderer(final NodeTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Starts pondering on a copy of the current position of a game.
+     *
+     * @param connectSix The game waiting for its next command.
+     */
+    public void start(final ConnectSix connectSix) {
+        stop();
+        ConnectSix position = connectSix.fork();
+        stopped = false;
+        thread = new Thread(() -> ponder(position), "ponderer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops pondering and waits until the background thread released the node table.
+     */
+    public void stop() {
+        if (thread == null) {
+            return;
+        }
+        stopped = true;
+        ThreatSolver solver = activeSolver;
+        if (solver != null) {
+            solver.cancel();
+        }
+
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException interruptedException) {
+                interrupted = true;
+            }
+        }
+        thread = null;
+        activeSolver = null;
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Solves the predicted replies round by round until pondering is stopped or all are decided.
+     *
+     * @param position The position to ponder on.
+     */
+    private void ponder(ConnectSix position) {
+        List<ThreatSolver> solvers = predictReplies(position);
+        long budget = INITIAL_NODE_BUDGET;
+        while (!stopped && !solvers.isEmpty()) {
+            for (int i = solvers.size() - 1; i >= 0 && !stopped; i--) {
+                ThreatSolver solver = solvers.get(i);
+                activeSolver = solver;
+                if (stopped) {
+                    return;
+                }
+                if (solver.solve(budget, Long.MAX_VALUE).getStatus() != SolverResult.Status.UNKNOWN) {
+                    solvers.remove(i);
+                }
+            }
+            budget *= 2;
+        }
+    }
+
+    /**
+     * Plays the predicted replies on copies of the position and creates a solver for each result.
+     *
+     * @param position The position to predict the replies in.
+     * @return The solvers of the positions after the replies.
+     */
+    private List<ThreatSolver> predictReplies(ConnectSix position) {
+        List<ThreatSolver> solvers = new ArrayList<>();
+        try {
+            List<int[]> replies = new ThreatSolver(position, table).predictMoves();
+            int size = position.getBoardSize();
+            for (int i = 0; i < replies.size() && solvers.size() < MAX_PREDICTED_REPLIES && !stopped; i++) {
+                int[] reply = replies.get(i);
+                ConnectSix next = position.fork();
+                next.placeToken(reply[0] / size, reply[0] % size, reply[1] / size, reply[1] % size);
+                if (next.getCurrentGameState() == GameState.RUNNING) {
+                    solvers.add(new ThreatSolver(next, table));
+                }
+            }
+        } catch (InvalidInputException invalidInputException) {
+            // Nothing to ponder on: the game is over or not supported by the solver
+        }
+        return solvers;
+    }
+}
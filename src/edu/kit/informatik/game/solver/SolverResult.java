@@ -0,0 +1,125 @@
+package edu.kit.informatik.game.solver;
+
+import java.util.List;
+import java.util.StringJoiner;
+
+import edu.kit.informatik.game.Player;
+
+/**
+ * The result of a threat sequence search.
+ * <p>
+ * A proven win carries the winning sequence: the moves of the attacker alternating with the
+ * defences of the opponent. It ends with the attacker's winning move, or with an attacker move that
+ * leaves more threats than the opponent can block. Every move is stored as the
+ * row-major indices of its two cells; a defence whose second token is irrelevant to the attack
+ * has -1 as its second cell.
+ * </p>
+ */
+public final class SolverResult {
+
+    /**
+     * The outcome of a search.
+     */
+    public enum Status {
+        /**
+         * The attacker wins by continuous threats.
+         */
+        WIN,
+
+        /**
+         * No win by continuous threats exists.
+         */
+        NO_WIN,
+
+        /**
+         * The search hit its node or time limit before deciding the position.
+         */
+        UNKNOWN
+    }
+
+    private final Status status;
+    private final Player attacker;
+    private final int boardSize;
+    private final List<int[]> sequence;
+    private final long nodes;
+
+    /**
+     * Creates a new result.
+     *
+     * @param status The outcome of the search.
+     * @param attacker The attacking player.
+     * @param boardSize The size of the board, used to convert cells to rows and columns.
+     * @param sequence The winning sequence, empty unless the status is {@link Status#WIN}.
+     * @param nodes The number of searched nodes.
+     */
+    SolverResult(Status status, Player attacker, int boardSize, List<int[]> sequence, long nodes) {
+        this.status = status;
+        this.attacker = attacker;
+        this.boardSize = boardSize;
+        this.sequence = List.copyOf(sequence);
+        this.nodes = nodes;
+    }
+
+    /**
+     * Returns the outcome of the search.
+     *
+     * @return The status.
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Returns the winning sequence.
+     *
+     * @return The moves as pairs of cell indices, empty if no win was proven.
+     */
+    public List<int[]> getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Returns the number of nodes searched.
+     *
+     * @return The node count.
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Returns the attacking player.
+     *
+     * @return The player the search was done for.
+     */
+    public Player getAttacker() {
+        return attacker;
+    }
+
+    /**
+     * Returns the result as a command response. A win lists its moves in the format of the
+     * place command, a passed token is left out.
+     *
+     * @return The result as a string.
+     */
+    @Override
+    public String toString() {
+        if (status == Status.NO_WIN) {
+            return "no forced win";
+        } else if (status == Status.UNKNOWN) {
+            return "unknown";
+        }
+
+        StringJoiner moves = new StringJoiner(" ", attacker + " wins by ", "");
+        for (int[] move : sequence) {
+            StringJoiner cells = new StringJoiner(";");
+            for (int cell : move) {
+                if (cell >= 0) {
+                    cells.add(cell / boardSize + ";" + cell % boardSize);
+                }
+            }
+            moves.add(cells.toString());
+        }
+        return moves.toString();
+    }
+}
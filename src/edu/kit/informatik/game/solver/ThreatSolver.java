@@ -0,0 +1,743 @@
+package edu.kit.informatik.game.solver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import edu.kit.informatik.InvalidInputException;
+import edu.kit.informatik.game.Player;
+import edu.kit.informatik.game.board.LineTable;
+import edu.kit.informatik.game.board.WindowTable;
+import edu.kit.informatik.game.logic.ConnectSix;
+import edu.kit.informatik.game.logic.GameRules;
+import edu.kit.informatik.game.logic.GameState;
+
+/**
+ * Proves or disproves wins by continuous threats with depth-first proof-number search (df-pn).
+ * <p>
+ * The player to move is the attacker. Every attacker move must leave a threat, a window that the
+ * attacker can complete with the next move, so the opponent is forced to block. Every defence must
+ * block all threats. If the attacker reaches a position with a completable window the attack is
+ * proven; if the attacker runs out of threatening moves it is disproven. Threats of the defender
+ * that are not blocked by the attacking move end the attack as well.
+ * </p>
+ *
+ * <p>
+ * A defence that needs only one of its two tokens to block all threats may place the other token
+ * on an empty cell of a window that either side can still turn into a threat, or pass it. As usual
+ * for threat-space search, tokens outside these windows are considered irrelevant to the attack.
+ * The solver works on both board types. It counts the tokens per window of the board's
+ * {@link WindowTable} and finds threats and candidate cells by scanning the bit masks of its
+ * {@link LineTable}, so it supports two player games on boards whose lines fit into a mask only.
+ * </p>
+ */
+public class ThreatSolver {
+    private static final int INFINITY = 100_000_000;
+    private static final int STONES_PER_TURN = 2;
+    private static final int ATTACKER = 0;
+    private static final int DEFENDER = 1;
+    private static final int EMPTY = -1;
+    private static final int NO_CELL = -1;
+    private static final int TIME_CHECK_INTERVAL = 1024;
+    private static final int PREVENTIVE_CELLS = 7;
+    private static final long ZOBRIST_SEED = 0x6A09E667F3BCC908L;
+
+    private final NodeTable table;
+    private final Player attacker;
+    private final int boardSize;
+    private final int threatLevel;
+    private final int[] cellWindowOffsets;
+    private final int[] cellWindows;
+    private final LineTable lineTable;
+    private final int lineCount;
+
+    private final int[] cells;
+    private final long[] lineMasks;
+    private final int[][] counts;
+    private final int[] threats = new int[2];
+    private final long[][] cellKeys;
+    private final long sideKey;
+    private long hash;
+    private int sideToMove;
+
+    private final int[] candidateMarks;
+    private final int[] soloMarks;
+    private int markStamp;
+
+    private long nodes;
+    private long nodeLimit;
+    private long deadline;
+    private boolean aborted;
+    private volatile boolean cancelled;
+
+    /**
+     * Creates a solver for the current position of a game, attacking with the current player.
+     *
+     * @param connectSix The game to analyze. It is only read, never changed.
+     * @param table The node table to store proof and disproof numbers in.
+     * @throws InvalidInputException If the game is over, has more than two players, its turns do
+     *                               not place two tokens or its lines do not fit into a mask.
+     */
+    public ThreatSolver(final ConnectSix connectSix, final NodeTable table) throws InvalidInputException {
+        if (connectSix.getPlayerAmount() != 2) {
+            throw new InvalidInputException("the solver supports two players only.");
+        }
+        GameRules rules = connectSix.getRules();
+        if (rules.getStonesPerTurn() != STONES_PER_TURN
+                || connectSix.getGameCounter() == 0 && rules.getFirstTurnStones() != STONES_PER_TURN) {
+            throw new InvalidInputException("the solver supports two tokens per turn only.");
+        }
+        if (connectSix.getCurrentGameState() != GameState.RUNNING) {
+            throw new InvalidInputException("game is over.");
+        }
+        if (connectSix.getLineTable() == null) {
+            throw new InvalidInputException("the solver supports lines of at most 64 cells only.");
+        }
+
+        WindowTable windowTable = connectSix.getWindowTable();
+        this.table = table;
+        this.attacker = connectSix.getCurrentPlayer();
+        this.boardSize = connectSix.getBoardSize();
+        this.threatLevel = windowTable.getWindowLength() - STONES_PER_TURN;
+        this.cellWindowOffsets = windowTable.getCellWindowOffsets();
+        this.cellWindows = windowTable.getCellWindows();
+        this.lineTable = connectSix.getLineTable();
+        this.lineCount = lineTable.getLineCount();
+
+        int cellCount = windowTable.getCellCount();
+        this.cells = new int[cellCount];
+        this.lineMasks = new long[lineTable.getMaskCount(2)];
+        this.counts = new int[2][windowTable.getWindowCount()];
+        this.candidateMarks = new int[cellCount];
+        this.soloMarks = new int[cellCount];
+
+        SplittableRandom random = new SplittableRandom(ZOBRIST_SEED);
+        this.cellKeys = new long[2][cellCount];
+        for (int side = ATTACKER; side <= DEFENDER; side++) {
+            for (int cell = 0; cell < cellCount; cell++) {
+                cellKeys[side][cell] = random.nextLong();
+            }
+        }
+        this.sideKey = random.nextLong();
+        for (int i = 0; i <= attacker.getPlayerID(); i++) {
+            hash = random.nextLong();
+        }
+
+        for (int cell = 0; cell < cellCount; cell++) {
+            Player player = connectSix.getCell(cell);
+            cells[cell] = EMPTY;
+            if (player != null) {
+                place(cell, player == attacker ? ATTACKER : DEFENDER);
+            }
+        }
+    }
+
+    /**
+     * Searches for a win by continuous threats.
+     *
+     * @param maxNodes The maximum number of nodes to search.
+     * @param maxMillis The maximum search time in milliseconds.
+     * @return The result of the search.
+     */
+    public SolverResult solve(final long maxNodes, final long maxMillis) {
+        nodes = 0;
+        nodeLimit = maxNodes;
+        deadline = System.nanoTime() + Math.min(maxMillis, Long.MAX_VALUE / 2_000_000) * 1_000_000;
+        aborted = false;
+
+        long rootKey = hash;
+        mid(INFINITY, INFINITY);
+
+        if (table.phi(rootKey, 1) == 0) {
+            return new SolverResult(SolverResult.Status.WIN, attacker, boardSize, winningSequence(), nodes);
+        } else if (table.delta(rootKey, 1) == 0) {
+            return new SolverResult(SolverResult.Status.NO_WIN, attacker, boardSize, List.of(), nodes);
+        }
+        return new SolverResult(SolverResult.Status.UNKNOWN, attacker, boardSize, List.of(), nodes);
+    }
+
+    /**
+     * Cancels a running search. The search returns as soon as possible with an unknown result,
+     * unless the position was already decided. May be called from any thread.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Predicts the plausible moves of the current player: the defences against the opponent's
+     * threats if there are any, otherwise the moves that create a threat, otherwise the moves into
+     * the opponent's most advanced windows. Defences that leave a token unplaced are not included.
+     *
+     * @return The moves as pairs of cell indices.
+     */
+    public List<int[]> predictMoves() {
+        int[] moves = threats[DEFENDER] > 0 ? defences(ATTACKER) : threatMoves(ATTACKER);
+        if (moves.length == 0) {
+            moves = preventiveMoves(ATTACKER);
+        }
+        List<int[]> predicted = new ArrayList<>();
+        for (int i = 0; i < moves.length; i += 2) {
+            if (moves[i + 1] != NO_CELL) {
+                predicted.add(new int[] {moves[i], moves[i + 1]});
+            }
+        }
+        return predicted;
+    }
+
+    /**
+     * Expands the current position until its proof or disproof number reaches its threshold.
+     *
+     * @param thresholdPhi The threshold of the proof number for the side to move.
+     * @param thresholdDelta The threshold of the disproof number for the side to move.
+     */
+    private void mid(int thresholdPhi, int thresholdDelta) {
+        if (limitReached()) {
+            return;
+        }
+        long key = hash;
+        long startNodes = nodes;
+        if (threats[sideToMove] > 0) {
+            table.store(key, 0, INFINITY, 1);
+            return;
+        }
+        int[] moves = sideToMove == ATTACKER ? threatMoves(ATTACKER) : defences(DEFENDER);
+        if (moves.length == 0) {
+            table.store(key, INFINITY, 0, 1);
+            return;
+        }
+
+        while (true) {
+            int phi = INFINITY;
+            int delta = 0;
+            int secondDelta = INFINITY;
+            int best = 0;
+            int bestPhi = 0;
+            for (int i = 0; i < moves.length; i += 2) {
+                long childKey = childKey(key, moves[i], moves[i + 1]);
+                int childPhi = table.phi(childKey, 1);
+                int childDelta = table.delta(childKey, 1);
+                if (childDelta < phi) {
+                    secondDelta = phi;
+                    phi = childDelta;
+                    best = i;
+                    bestPhi = childPhi;
+                } else if (childDelta < secondDelta) {
+                    secondDelta = childDelta;
+                }
+                delta = Math.min(INFINITY, delta + childPhi);
+            }
+
+            if (phi >= thresholdPhi || delta >= thresholdDelta || aborted) {
+                table.store(key, phi, delta, nodes - startNodes + 1);
+                return;
+            }
+
+            play(moves[best], moves[best + 1]);
+            mid(Math.min(INFINITY, thresholdDelta - delta + bestPhi), Math.min(thresholdPhi, secondDelta + 1));
+            undo(moves[best], moves[best + 1]);
+        }
+    }
+
+    /**
+     * Counts a node and checks the node limit, the time limit and cancellation.
+     *
+     * @return True if the search has to stop, false otherwise.
+     */
+    private boolean limitReached() {
+        nodes++;
+        if (cancelled || nodes > nodeLimit
+                || nodes % TIME_CHECK_INTERVAL == 0 && System.nanoTime() - deadline > 0) {
+            aborted = true;
+        }
+        return aborted;
+    }
+
+    /**
+     * Generates the moves of a side that block all threats of the other side and leave a threat.
+     *
+     * @param side The moving side.
+     * @return The moves as consecutive pairs of cells.
+     */
+    private int[] threatMoves(int side) {
+        int other = 1 - side;
+        int[] blockWindows = threatWindows(other);
+        markStamp++;
+        int[] candidates = new int[cells.length];
+        int candidateCount = addLiveCells(side, threatLevel - STONES_PER_TURN, candidates, 0, candidateMarks);
+        for (int window : blockWindows) {
+            candidateCount = addEmptyCells(window / Long.SIZE, windowCells(window), candidates, candidateCount,
+                    candidateMarks);
+        }
+
+        int[] bestCounts = new int[candidateCount];
+        for (int i = 0; i < candidateCount; i++) {
+            bestCounts[i] = bestLiveCount(side, candidates[i]);
+        }
+
+        MoveList moves = new MoveList();
+        for (int i = 0; i < candidateCount; i++) {
+            for (int j = i + 1; j < candidateCount; j++) {
+                int first = candidates[i];
+                int second = candidates[j];
+                if (blocksAll(blockWindows, first, second) && isThreatening(side, first, bestCounts[i], second, bestCounts[j])) {
+                    moves.add(first, second);
+                }
+            }
+        }
+        return moves.toArray();
+    }
+
+    /**
+     * Checks if a move leaves a threat.
+     *
+     * @param side The moving side.
+     * @param first The first cell of the move.
+     * @param firstCount The highest count of a live window of the side through the first cell.
+     * @param second The second cell of the move.
+     * @param secondCount The highest count of a live window of the side through the second cell.
+     * @return True if the side can complete a window with its following move, false otherwise.
+     */
+    private boolean isThreatening(int side, int first, int firstCount, int second, int secondCount) {
+        if (Math.max(firstCount, secondCount) >= threatLevel - 1) {
+            return true;
+        }
+        if (Math.min(firstCount, secondCount) < threatLevel - STONES_PER_TURN) {
+            return false;
+        }
+        // Only a live window containing both cells can become a threat
+        place(first, side);
+        place(second, side);
+        boolean threatening = threats[side] > 0;
+        remove(second, side);
+        remove(first, side);
+        return threatening;
+    }
+
+    /**
+     * Returns the highest count of a side in the windows through a cell that the other side has
+     * not entered yet.
+     *
+     * @param side The side.
+     * @param cell The cell.
+     * @return The highest count, or -1 if no such window exists.
+     */
+    private int bestLiveCount(int side, int cell) {
+        int best = -1;
+        for (int i = cellWindowOffsets[cell]; i < cellWindowOffsets[cell + 1]; i++) {
+            int window = cellWindows[i];
+            if (counts[1 - side][window] == 0) {
+                best = Math.max(best, counts[side][window]);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Generates the defences of a side that block all threats of the other side.
+     *
+     * @param side The moving side.
+     * @return The moves as consecutive pairs of cells, with -1 as second cell for a passed token.
+     */
+    private int[] defences(int side) {
+        int[] threatWindows = threatWindows(1 - side);
+        markStamp++;
+        int[] blockers = new int[cells.length];
+        int blockerCount = 0;
+        for (int window : threatWindows) {
+            blockerCount = addEmptyCells(window / Long.SIZE, windowCells(window), blockers, blockerCount,
+                    candidateMarks);
+        }
+        boolean anySolo = false;
+        for (int i = 0; i < blockerCount; i++) {
+            if (blocksAll(threatWindows, blockers[i], NO_CELL)) {
+                soloMarks[blockers[i]] = markStamp;
+                anySolo = true;
+            }
+        }
+
+        // Cells where a free token still matters to either side
+        markStamp++;
+        int[] freeCells = new int[anySolo ? cells.length : 0];
+        int freeCount = 0;
+        for (int owner = ATTACKER; anySolo && owner <= DEFENDER; owner++) {
+            freeCount = addLiveCells(owner, threatLevel - STONES_PER_TURN, freeCells, freeCount, candidateMarks);
+        }
+
+        MoveList moves = new MoveList();
+        int soloStamp = markStamp - 1;
+        for (int i = 0; i < blockerCount; i++) {
+            int first = blockers[i];
+            if (soloMarks[first] == soloStamp) {
+                moves.add(first, NO_CELL);
+                for (int j = 0; j < freeCount; j++) {
+                    int second = freeCells[j];
+                    // Pairs of two sufficient blockers are generated only once
+                    if (second != first && (soloMarks[second] != soloStamp || second > first)) {
+                        moves.add(first, second);
+                    }
+                }
+            } else {
+                for (int j = i + 1; j < blockerCount; j++) {
+                    int second = blockers[j];
+                    if (soloMarks[second] != soloStamp && blocksAll(threatWindows, first, second)) {
+                        moves.add(first, second);
+                    }
+                }
+            }
+        }
+        return moves.toArray();
+    }
+
+    /**
+     * Generates the moves of a side into the cells where the other side is closest to a threat.
+     *
+     * @param side The moving side.
+     * @return The moves as consecutive pairs of cells.
+     */
+    private int[] preventiveMoves(int side) {
+        int other = 1 - side;
+        markStamp++;
+        int[] cellsByCount = new int[cells.length];
+        int cellCount = addLiveCells(other, threatLevel - STONES_PER_TURN, cellsByCount, 0, candidateMarks);
+
+        // Keep the cells with the highest counts, ordered by selection
+        int selected = Math.min(cellCount, PREVENTIVE_CELLS);
+        for (int i = 0; i < selected; i++) {
+            for (int j = i + 1; j < cellCount; j++) {
+                if (bestLiveCount(other, cellsByCount[j]) > bestLiveCount(other, cellsByCount[i])) {
+                    int swap = cellsByCount[i];
+                    cellsByCount[i] = cellsByCount[j];
+                    cellsByCount[j] = swap;
+                }
+            }
+        }
+
+        MoveList moves = new MoveList();
+        for (int i = 0; i < selected; i++) {
+            for (int j = i + 1; j < selected; j++) {
+                moves.add(cellsByCount[i], cellsByCount[j]);
+            }
+        }
+        return moves.toArray();
+    }
+
+    /**
+     * Collects the windows a side can complete with a single move. A window is given by its line
+     * and its start position within the line, as {@code line * 64 + start}.
+     *
+     * @param side The side owning the threats.
+     * @return The threatening windows.
+     */
+    private int[] threatWindows(int side) {
+        int[] windows = new int[threats[side]];
+        int count = 0;
+        for (int line = 0; line < lineCount && count < windows.length; line++) {
+            long starts = lineTable.findWindows(lineMasks[(side + 1) * lineCount + line],
+                    lineMasks[(2 - side) * lineCount + line], line, threatLevel);
+            for (; starts != 0 && count < windows.length; starts &= starts - 1) {
+                windows[count++] = line * Long.SIZE + Long.numberOfTrailingZeros(starts);
+            }
+        }
+        return windows;
+    }
+
+    /**
+     * Adds the empty cells of all windows that contain at least the given number of tokens of a
+     * side and no token of the other side to a list, skipping cells marked with the current stamp.
+     *
+     * @param side The side.
+     * @param minimum The minimum number of tokens of the side per window.
+     * @param target The list to add to.
+     * @param count The current size of the list.
+     * @param marks The marks of the cells already in the list.
+     * @return The new size of the list.
+     */
+    private int addLiveCells(int side, int minimum, int[] target, int count, int[] marks) {
+        int newCount = count;
+        for (int line = 0; line < lineCount; line++) {
+            long starts = lineTable.findWindows(lineMasks[(side + 1) * lineCount + line],
+                    lineMasks[(2 - side) * lineCount + line], line, minimum);
+            if (starts != 0) {
+                newCount = addEmptyCells(line, lineTable.windowCells(starts, line), target, newCount, marks);
+            }
+        }
+        return newCount;
+    }
+
+    /**
+     * Adds the empty cells among the given cells of a line to a list, skipping cells marked with
+     * the current stamp.
+     *
+     * @param line The line.
+     * @param lineCells A mask of cells of the line.
+     * @param target The list to add to.
+     * @param count The current size of the list.
+     * @param marks The marks of the cells already in the list.
+     * @return The new size of the list.
+     */
+    private int addEmptyCells(int line, long lineCells, int[] target, int count, int[] marks) {
+        int newCount = count;
+        for (long empty = lineCells & ~lineMasks[line]; empty != 0; empty &= empty - 1) {
+            int cell = lineTable.getCell(line, Long.numberOfTrailingZeros(empty));
+            if (marks[cell] != markStamp) {
+                marks[cell] = markStamp;
+                target[newCount++] = cell;
+            }
+        }
+        return newCount;
+    }
+
+    /**
+     * Checks if two cells together hit every given window.
+     *
+     * @param windows The windows to block, as returned by {@link #threatWindows(int)}.
+     * @param first The first cell.
+     * @param second The second cell, or -1.
+     * @return True if every window contains one of the cells, false otherwise.
+     */
+    private boolean blocksAll(int[] windows, int first, int second) {
+        for (int window : windows) {
+            if (!contains(window, first) && !contains(window, second)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the cells of a window.
+     *
+     * @param window The window, as returned by {@link #threatWindows(int)}.
+     * @return A mask of the window's cells within its line.
+     */
+    private long windowCells(int window) {
+        return lineTable.windowCells(1L << window % Long.SIZE, window / Long.SIZE);
+    }
+
+    /**
+     * Checks if a window contains a cell.
+     *
+     * @param window The window, as returned by {@link #threatWindows(int)}.
+     * @param cell The cell, or -1.
+     * @return True if the cell lies in the window, false otherwise.
+     */
+    private boolean contains(int window, int cell) {
+        if (cell == NO_CELL) {
+            return false;
+        }
+        int line = window / Long.SIZE;
+        int axis = lineTable.getAxis(line);
+        return lineTable.getLine(cell, axis) == line
+                && (lineTable.getCoveringStarts(cell, axis) >>> window % Long.SIZE & 1) != 0;
+    }
+
+    /**
+     * Checks if a window can be completed by a side with a single move.
+     *
+     * @param side The side.
+     * @param window The window.
+     * @return True if the window is a threat of the side, false otherwise.
+     */
+    private boolean isThreat(int side, int window) {
+        return counts[side][window] >= threatLevel && counts[1 - side][window] == 0;
+    }
+
+    /**
+     * Returns the hash of the position after a move of the side to move.
+     *
+     * @param key The hash of the current position.
+     * @param first The first cell of the move.
+     * @param second The second cell of the move, or -1.
+     * @return The hash of the child position.
+     */
+    private long childKey(long key, int first, int second) {
+        long childKey = key ^ sideKey ^ cellKeys[sideToMove][first];
+        return second == NO_CELL ? childKey : childKey ^ cellKeys[sideToMove][second];
+    }
+
+    /**
+     * Plays a move of the side to move.
+     *
+     * @param first The first cell of the move.
+     * @param second The second cell of the move, or -1.
+     */
+    private void play(int first, int second) {
+        place(first, sideToMove);
+        if (second != NO_CELL) {
+            place(second, sideToMove);
+        }
+        sideToMove = 1 - sideToMove;
+        hash ^= sideKey;
+    }
+
+    /**
+     * Takes back a move played with {@link #play(int, int)}.
+     *
+     * @param first The first cell of the move.
+     * @param second The second cell of the move, or -1.
+     */
+    private void undo(int first, int second) {
+        sideToMove = 1 - sideToMove;
+        hash ^= sideKey;
+        if (second != NO_CELL) {
+            remove(second, sideToMove);
+        }
+        remove(first, sideToMove);
+    }
+
+    /**
+     * Places a token and updates the window counts, threat counts and hash.
+     *
+     * @param cell The cell.
+     * @param side The side placing the token.
+     */
+    private void place(int cell, int side) {
+        cells[cell] = side;
+        lineTable.set(lineMasks, 0, cell, side);
+        hash ^= cellKeys[side][cell];
+        updateWindows(cell, side, 1);
+    }
+
+    /**
+     * Removes a token and updates the window counts, threat counts and hash.
+     *
+     * @param cell The cell.
+     * @param side The side owning the token.
+     */
+    private void remove(int cell, int side) {
+        cells[cell] = EMPTY;
+        lineTable.unset(lineMasks, 0, cell, side);
+        hash ^= cellKeys[side][cell];
+        updateWindows(cell, side, -1);
+    }
+
+    /**
+     * Changes the token count of a side in all windows through a cell.
+     *
+     * @param cell The cell.
+     * @param side The side.
+     * @param change The change of the count, 1 or -1.
+     */
+    private void updateWindows(int cell, int side, int change) {
+        for (int i = cellWindowOffsets[cell]; i < cellWindowOffsets[cell + 1]; i++) {
+            int window = cellWindows[i];
+            int attackerBefore = isThreat(ATTACKER, window) ? 1 : 0;
+            int defenderBefore = isThreat(DEFENDER, window) ? 1 : 0;
+            counts[side][window] += change;
+            threats[ATTACKER] += (isThreat(ATTACKER, window) ? 1 : 0) - attackerBefore;
+            threats[DEFENDER] += (isThreat(DEFENDER, window) ? 1 : 0) - defenderBefore;
+        }
+    }
+
+    /**
+     * Follows the proven moves from the root to the final winning move.
+     *
+     * @return The winning sequence.
+     */
+    private List<int[]> winningSequence() {
+        List<int[]> sequence = new ArrayList<>();
+        int played = 0;
+        while (threats[sideToMove] == 0) {
+            int[] move = provenMove();
+            if (move == null && sideToMove == DEFENDER && defences(DEFENDER).length == 0) {
+                // The defender cannot block all threats, the attack is complete
+                break;
+            }
+            if (move == null) {
+                // The entry was replaced in the table, so the position is solved again
+                mid(INFINITY, INFINITY);
+                move = provenMove();
+                if (move == null) {
+                    break;
+                }
+            }
+            sequence.add(move);
+            play(move[0], move[1]);
+            played++;
+        }
+        if (sideToMove == ATTACKER && threats[ATTACKER] > 0) {
+            sequence.add(completingMove());
+        }
+        for (int i = played - 1; i >= 0; i--) {
+            undo(sequence.get(i)[0], sequence.get(i)[1]);
+        }
+        return sequence;
+    }
+
+    /**
+     * Returns a move that keeps the proof: a winning attack or any defence.
+     *
+     * @return The move, or {@code null} if the proof is no longer in the table.
+     */
+    private int[] provenMove() {
+        int[] moves = sideToMove == ATTACKER ? threatMoves(ATTACKER) : defences(DEFENDER);
+        for (int i = 0; i < moves.length; i += 2) {
+            long childKey = childKey(hash, moves[i], moves[i + 1]);
+            boolean proven = sideToMove == ATTACKER
+                    ? table.delta(childKey, 1) == 0
+                    : table.phi(childKey, 1) == 0;
+            if (proven) {
+                return new int[] {moves[i], moves[i + 1]};
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the move completing a threat of the side to move.
+     *
+     * @return The two cells of the move.
+     */
+    private int[] completingMove() {
+        int window = threatWindows(sideToMove)[0];
+        int line = window / Long.SIZE;
+        int[] move = {NO_CELL, NO_CELL};
+        int count = 0;
+        long empty = windowCells(window) & ~lineMasks[line];
+        for (; empty != 0; empty &= empty - 1) {
+            move[count++] = lineTable.getCell(line, Long.numberOfTrailingZeros(empty));
+        }
+        for (int cell = 0; count < STONES_PER_TURN && cell < cells.length; cell++) {
+            if (cells[cell] == EMPTY && cell != move[0]) {
+                move[count++] = cell;
+            }
+        }
+        return move;
+    }
+
+    /**
+     * Growable list of moves, stored as consecutive pairs of cells.
+     */
+    private static final class MoveList {
+        private int[] moves = new int[64];
+        private int size;
+
+        /**
+         * Appends a move.
+         *
+         * @param first The first cell.
+         * @param second The second cell, or -1.
+         */
+        void add(int first, int second) {
+            if (size + 2 > moves.length) {
+                int[] grown = new int[moves.length * 2];
+                System.arraycopy(moves, 0, grown, 0, size);
+                moves = grown;
+            }
+            moves[size++] = first;
+            moves[size++] = second;
+        }
+
+        /**
+         * Returns the moves as a trimmed array.
+         *
+         * @return The moves.
+         */
+        int[] toArray() {
+            int[] result = new int[size];
+            System.arraycopy(moves, 0, result, 0, size);
+            return result;
+        }
+    }
+}